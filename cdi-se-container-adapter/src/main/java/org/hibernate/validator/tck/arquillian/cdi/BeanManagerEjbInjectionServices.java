@@ -0,0 +1,56 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian.cdi;
+
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import org.jboss.weld.injection.spi.EjbInjectionServices;
+import org.jboss.weld.injection.spi.ResourceReferenceFactory;
+import org.jboss.weld.injection.spi.helpers.SimpleResourceReference;
+
+/**
+ * Resolves {@code @EJB} injection points to the CDI bean of the injection point type. There is no EJB container, so
+ * session beans are deployed as plain managed beans, which is sufficient for the TCK, as it does not rely on any EJB
+ * specific services.
+ */
+class BeanManagerEjbInjectionServices implements EjbInjectionServices {
+
+	private volatile BeanManager beanManager;
+
+	/**
+	 * Sets the bean manager to resolve the injection points with, as the services have to be registered before the
+	 * container is initialized.
+	 */
+	void setBeanManager(BeanManager beanManager) {
+		this.beanManager = beanManager;
+	}
+
+	@Override
+	public ResourceReferenceFactory<Object> registerEjbInjectionPoint(InjectionPoint injectionPoint) {
+		return () -> new SimpleResourceReference<>( resolveEjb( injectionPoint ) );
+	}
+
+	@Override
+	public Object resolveEjb(InjectionPoint injectionPoint) {
+		if ( beanManager == null ) {
+			throw new IllegalStateException( "The CDI SE container has not been initialized yet" );
+		}
+
+		Bean<?> bean = beanManager.resolve( beanManager.getBeans( injectionPoint.getType() ) );
+		if ( bean == null ) {
+			throw new IllegalStateException( "No bean found for @EJB injection point " + injectionPoint );
+		}
+		return beanManager.getReference( bean, injectionPoint.getType(), beanManager.createCreationalContext( bean ) );
+	}
+
+	@Override
+	public void cleanup() {
+		beanManager = null;
+	}
+}
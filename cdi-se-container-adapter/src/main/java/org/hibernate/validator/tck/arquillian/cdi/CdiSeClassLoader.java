@@ -0,0 +1,56 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian.cdi;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * The class loader of a deployment to the {@link CdiSeContainer}. As the class loader of a web application, it defines
+ * the classes of the deployment itself instead of delegating to its parent first, so each deployment gets its own
+ * classes, including their static state. Only the classes of the JDK and of the Java EE APIs are always loaded by the
+ * parent, the classes of the deployment must be compatible with the APIs implemented by the classpath.
+ */
+class CdiSeClassLoader extends URLClassLoader {
+
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
+
+	CdiSeClassLoader(URL[] urls, ClassLoader parent) {
+		super( urls, parent );
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		if ( name.startsWith( "java." ) || name.startsWith( "javax." ) ) {
+			return super.loadClass( name, resolve );
+		}
+
+		synchronized ( getClassLoadingLock( name ) ) {
+			Class<?> clazz = findLoadedClass( name );
+			if ( clazz == null ) {
+				try {
+					clazz = findClass( name );
+				}
+				catch ( ClassNotFoundException e ) {
+					return super.loadClass( name, resolve );
+				}
+			}
+			if ( resolve ) {
+				resolveClass( clazz );
+			}
+			return clazz;
+		}
+	}
+
+	@Override
+	public URL getResource(String name) {
+		URL resource = findResource( name );
+		return resource != null ? resource : super.getResource( name );
+	}
+}
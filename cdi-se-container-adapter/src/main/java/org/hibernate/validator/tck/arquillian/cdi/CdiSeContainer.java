@@ -0,0 +1,298 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian.cdi;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.Extension;
+import javax.naming.Context;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.jboss.arquillian.container.spi.client.container.DeployableContainer;
+import org.jboss.arquillian.container.spi.client.container.DeploymentException;
+import org.jboss.arquillian.container.spi.client.container.LifecycleException;
+import org.jboss.arquillian.container.spi.client.protocol.ProtocolDescription;
+import org.jboss.arquillian.container.spi.client.protocol.metadata.ProtocolMetaData;
+import org.jboss.arquillian.container.spi.context.annotation.DeploymentScoped;
+import org.jboss.arquillian.core.api.InstanceProducer;
+import org.jboss.arquillian.core.api.annotation.Inject;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.exporter.ExplodedExporter;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.jboss.shrinkwrap.descriptor.api.Descriptor;
+import org.jboss.weld.bootstrap.spi.BeanDiscoveryMode;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * An Arquillian container running the tests in the current JVM within an embedded CDI SE container (Weld SE), allowing
+ * to run the integration tests without a Java EE server.
+ * <p>
+ * On deployment, the archive, including the test class, is exploded to disk and served by a class loader defining its
+ * classes itself, so that each deployment has its own classes and static state as in a Java EE container; this class
+ * loader is set as thread context class loader. The test methods are executed on an instance of the test class loaded
+ * by this class loader, see {@link CdiSeProtocol}. If the archive contains
+ * a {@code WEB-INF/beans.xml} descriptor, as all the integration tests do, a CDI container is started, deploying the
+ * classes of {@code WEB-INF/classes} as bean classes with the bean discovery mode and the interceptors, decorators and
+ * alternatives given in the descriptor. Archives without descriptor are run without CDI container, as in the
+ * standalone container adapter. The CDI integration of the Bean Validation provider under test must be on the class
+ * path, it is picked up as portable extension.
+ * <p>
+ * A Java EE container binds the default {@code ValidatorFactory} and {@code Validator} under
+ * {@code java:comp/ValidatorFactory} and {@code java:comp/Validator}. Here they are served by the
+ * {@link InMemoryInitialContextFactory}, which is installed as initial context factory while an archive is deployed.
+ * {@code @Resource} and {@code @EJB} injection points are resolved against these bindings and the CDI beans
+ * respectively; there is no EJB container, session beans are deployed as plain managed beans.
+ */
+public class CdiSeContainer implements DeployableContainer<CdiSeContainerConfiguration> {
+
+	private static final Logger log = Logger.getLogger( CdiSeContainer.class.getName() );
+
+	private static final String WEB_INF = "WEB-INF/";
+	private static final String WEB_INF_CLASSES = WEB_INF + "classes/";
+	private static final String WEB_INF_LIB = WEB_INF + "lib/";
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	@Inject
+	@DeploymentScoped
+	private InstanceProducer<BeanManager> beanManager;
+
+	private CdiSeContainerConfiguration configuration = new CdiSeContainerConfiguration();
+
+	private ClassLoader originalContextClassLoader;
+	private String originalInitialContextFactory;
+	private CdiSeDeployment deployment;
+
+	@Override
+	public Class<CdiSeContainerConfiguration> getConfigurationClass() {
+		return CdiSeContainerConfiguration.class;
+	}
+
+	@Override
+	public void setup(CdiSeContainerConfiguration configuration) {
+		this.configuration = configuration;
+	}
+
+	@Override
+	public void start() throws LifecycleException {
+	}
+
+	@Override
+	public void stop() throws LifecycleException {
+	}
+
+	@Override
+	public ProtocolDescription getDefaultProtocol() {
+		return new ProtocolDescription( CdiSeProtocol.NAME );
+	}
+
+	@Override
+	public ProtocolMetaData deploy(Archive<?> archive) throws DeploymentException {
+		String prefix = archive instanceof WebArchive ? WEB_INF_CLASSES : "";
+
+		String beansXmlPath = prefix.isEmpty() ? "META-INF/beans.xml" : WEB_INF + "beans.xml";
+
+		originalContextClassLoader = Thread.currentThread().getContextClassLoader();
+		originalInitialContextFactory = System.getProperty( Context.INITIAL_CONTEXT_FACTORY );
+		try {
+			File deploymentDirectory = explode( archive );
+			deployment = new CdiSeDeployment(
+					deploymentDirectory,
+					new CdiSeClassLoader( getClassPath( deploymentDirectory, prefix ), originalContextClassLoader )
+			);
+			Thread.currentThread().setContextClassLoader( deployment.getClassLoader() );
+
+			File beansXml = new File( deploymentDirectory, beansXmlPath );
+			if ( beansXml.isFile() ) {
+				startCdiContainer( archive, prefix, beansXml );
+				bindDefaultObjects();
+				beanManager.set( deployment.getWeldContainer().getBeanManager() );
+			}
+		}
+		catch ( Exception | LinkageError e ) {
+			undeploy();
+			throw new DeploymentException( "Unable to deploy " + archive.getName() + " to the CDI SE container", e );
+		}
+
+		return new ProtocolMetaData().addContext( deployment );
+	}
+
+	@Override
+	public void undeploy(Archive<?> archive) throws DeploymentException {
+		undeploy();
+	}
+
+	@Override
+	public void deploy(Descriptor descriptor) throws DeploymentException {
+	}
+
+	@Override
+	public void undeploy(Descriptor descriptor) throws DeploymentException {
+	}
+
+	private void startCdiContainer(Archive<?> archive, String prefix, File beansXml) throws Exception {
+		BeanManagerEjbInjectionServices ejbInjectionServices = new BeanManagerEjbInjectionServices();
+		Weld weld = new Weld( "beanvalidation-tck-" + archive.getName() )
+				.disableDiscovery()
+				.skipShutdownHook()
+				.setClassLoader( deployment.getClassLoader() )
+				.beanClasses( getBeanClasses( archive, prefix ) )
+				.addServices( new NamingResourceInjectionServices(), ejbInjectionServices );
+
+		// with the discovery disabled, the portable extensions are not loaded automatically
+		for ( Extension extension : ServiceLoader.load( Extension.class, deployment.getClassLoader() ) ) {
+			weld.addExtension( extension );
+		}
+
+		if ( beansXml.length() > 0 ) {
+			DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+			documentBuilderFactory.setNamespaceAware( true );
+			Document document = documentBuilderFactory.newDocumentBuilder().parse( beansXml );
+			String beanDiscoveryMode = document.getDocumentElement().getAttribute( "bean-discovery-mode" );
+			if ( !beanDiscoveryMode.isEmpty() ) {
+				weld.setBeanDiscoveryMode( BeanDiscoveryMode.valueOf( beanDiscoveryMode.toUpperCase( Locale.ROOT ) ) );
+			}
+			weld.enableInterceptors( getEnabledClasses( document, "interceptors" ) )
+					.enableDecorators( getEnabledClasses( document, "decorators" ) )
+					.selectAlternatives( getEnabledClasses( document, "alternatives" ) );
+		}
+
+		WeldContainer weldContainer = weld.initialize();
+		deployment.setWeldContainer( weldContainer );
+		ejbInjectionServices.setBeanManager( weldContainer.getBeanManager() );
+	}
+
+	private void bindDefaultObjects() {
+		WeldContainer weldContainer = deployment.getWeldContainer();
+
+		InMemoryInitialContextFactory.bind( "java:comp/BeanManager", weldContainer.getBeanManager() );
+
+		Instance<ValidatorFactory> validatorFactory = weldContainer.select( ValidatorFactory.class );
+		if ( !validatorFactory.isUnsatisfied() && !validatorFactory.isAmbiguous() ) {
+			InMemoryInitialContextFactory.bind( "java:comp/ValidatorFactory", validatorFactory.get() );
+		}
+		else {
+			log.warning( "No ValidatorFactory bean found, make sure the CDI integration of the provider under test is on the class path" );
+		}
+
+		Instance<Validator> validator = weldContainer.select( Validator.class );
+		if ( !validator.isUnsatisfied() && !validator.isAmbiguous() ) {
+			InMemoryInitialContextFactory.bind( "java:comp/Validator", validator.get() );
+		}
+
+		System.setProperty( Context.INITIAL_CONTEXT_FACTORY, InMemoryInitialContextFactory.class.getName() );
+	}
+
+	private void undeploy() throws DeploymentException {
+		try {
+			if ( deployment != null ) {
+				deployment.close();
+			}
+		}
+		finally {
+			deployment = null;
+			InMemoryInitialContextFactory.unbindAll();
+			if ( originalInitialContextFactory != null ) {
+				System.setProperty( Context.INITIAL_CONTEXT_FACTORY, originalInitialContextFactory );
+			}
+			else {
+				System.clearProperty( Context.INITIAL_CONTEXT_FACTORY );
+			}
+			originalInitialContextFactory = null;
+
+			if ( originalContextClassLoader != null ) {
+				Thread.currentThread().setContextClassLoader( originalContextClassLoader );
+			}
+		}
+	}
+
+	private File explode(Archive<?> archive) throws IOException {
+		String directory = configuration.getDeploymentDirectory();
+		Path parent = directory != null
+				? Files.createTempDirectory( new File( directory ).toPath(), "beanvalidation-tck-" )
+				: Files.createTempDirectory( "beanvalidation-tck-" );
+		return archive.as( ExplodedExporter.class ).exportExploded( parent.toFile(), archive.getName() );
+	}
+
+	private static URL[] getClassPath(File deploymentDirectory, String prefix) throws MalformedURLException {
+		List<URL> classPath = new ArrayList<>();
+		classPath.add( new File( deploymentDirectory, prefix ).toURI().toURL() );
+
+		File[] libraries = new File( deploymentDirectory, WEB_INF_LIB ).listFiles( ( dir, name ) -> name.endsWith( ".jar" ) );
+		if ( !prefix.isEmpty() && libraries != null ) {
+			for ( File library : libraries ) {
+				classPath.add( library.toURI().toURL() );
+			}
+		}
+
+		return classPath.toArray( new URL[classPath.size()] );
+	}
+
+	/**
+	 * Loads all classes of the archive, classes which cannot be loaded (e.g. due to missing optional dependencies) are
+	 * skipped.
+	 */
+	private Class<?>[] getBeanClasses(Archive<?> archive, String prefix) {
+		List<Class<?>> beanClasses = new ArrayList<>();
+
+		for ( ArchivePath path : archive.getContent().keySet() ) {
+			String name = path.get().substring( 1 );
+			if ( !name.startsWith( prefix ) || !name.endsWith( CLASS_FILE_SUFFIX ) || name.endsWith( "-info" + CLASS_FILE_SUFFIX ) ) {
+				continue;
+			}
+
+			String className = name.substring( prefix.length(), name.length() - CLASS_FILE_SUFFIX.length() ).replace( '/', '.' );
+			try {
+				beanClasses.add( Class.forName( className, false, deployment.getClassLoader() ) );
+			}
+			catch ( ClassNotFoundException | LinkageError e ) {
+				log.log( Level.FINE, "Skipping class " + className + " of " + archive.getName(), e );
+			}
+		}
+
+		return beanClasses.toArray( new Class<?>[beanClasses.size()] );
+	}
+
+	/**
+	 * Returns the classes listed in the given section ({@code interceptors}, {@code decorators} or
+	 * {@code alternatives}) of a {@code beans.xml} descriptor.
+	 */
+	private Class<?>[] getEnabledClasses(Document beansXml, String section) throws ClassNotFoundException {
+		List<Class<?>> classes = new ArrayList<>();
+
+		NodeList sections = beansXml.getElementsByTagNameNS( "*", section );
+		for ( int i = 0; i < sections.getLength(); i++ ) {
+			NodeList children = ( (Element) sections.item( i ) ).getChildNodes();
+			for ( int j = 0; j < children.getLength(); j++ ) {
+				if ( children.item( j ) instanceof Element && "class".equals( children.item( j ).getLocalName() ) ) {
+					classes.add( Class.forName( children.item( j ).getTextContent().trim(), false, deployment.getClassLoader() ) );
+				}
+			}
+		}
+
+		return classes.toArray( new Class<?>[classes.size()] );
+	}
+}
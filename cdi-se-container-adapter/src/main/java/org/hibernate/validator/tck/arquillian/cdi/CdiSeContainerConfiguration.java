@@ -0,0 +1,38 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian.cdi;
+
+import java.io.File;
+
+import org.jboss.arquillian.container.spi.ConfigurationException;
+import org.jboss.arquillian.container.spi.client.container.ContainerConfiguration;
+
+/**
+ * Configuration of the {@link CdiSeContainer}.
+ */
+public class CdiSeContainerConfiguration implements ContainerConfiguration {
+
+	/**
+	 * Directory the deployed archives are exploded to, the temporary directory if {@code null}.
+	 */
+	private String deploymentDirectory;
+
+	public String getDeploymentDirectory() {
+		return deploymentDirectory;
+	}
+
+	public void setDeploymentDirectory(String deploymentDirectory) {
+		this.deploymentDirectory = deploymentDirectory;
+	}
+
+	@Override
+	public void validate() throws ConfigurationException {
+		if ( deploymentDirectory != null && !new File( deploymentDirectory ).isDirectory() ) {
+			throw new ConfigurationException( "The deployment directory " + deploymentDirectory + " does not exist" );
+		}
+	}
+}
@@ -0,0 +1,27 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian.cdi;
+
+import org.jboss.arquillian.container.spi.client.container.DeployableContainer;
+import org.jboss.arquillian.container.test.spi.client.deployment.ApplicationArchiveProcessor;
+import org.jboss.arquillian.container.test.spi.client.protocol.Protocol;
+import org.jboss.arquillian.core.spi.LoadableExtension;
+import org.jboss.arquillian.test.spi.TestEnricher;
+
+/**
+ * Registers the {@link CdiSeContainer}, its protocol and the enricher injecting its beans into the test instances.
+ */
+public class CdiSeContainerExtension implements LoadableExtension {
+
+	@Override
+	public void register(ExtensionBuilder builder) {
+		builder.service( DeployableContainer.class, CdiSeContainer.class );
+		builder.service( TestEnricher.class, CdiSeTestEnricher.class );
+		builder.service( Protocol.class, CdiSeProtocol.class );
+		builder.service( ApplicationArchiveProcessor.class, CdiSeTestClassAppender.class );
+	}
+}
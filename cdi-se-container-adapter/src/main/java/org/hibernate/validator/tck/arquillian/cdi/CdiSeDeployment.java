@@ -0,0 +1,72 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian.cdi;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.jboss.arquillian.container.spi.client.container.DeploymentException;
+import org.jboss.weld.environment.se.WeldContainer;
+
+/**
+ * An archive deployed to the {@link CdiSeContainer}: the directory it has been exploded to, the class loader serving
+ * it and the CDI container started for it, if any.
+ */
+class CdiSeDeployment {
+
+	private final File directory;
+	private final CdiSeClassLoader classLoader;
+	private WeldContainer weldContainer;
+
+	CdiSeDeployment(File directory, CdiSeClassLoader classLoader) {
+		this.directory = directory;
+		this.classLoader = classLoader;
+	}
+
+	File getDirectory() {
+		return directory;
+	}
+
+	CdiSeClassLoader getClassLoader() {
+		return classLoader;
+	}
+
+	WeldContainer getWeldContainer() {
+		return weldContainer;
+	}
+
+	void setWeldContainer(WeldContainer weldContainer) {
+		this.weldContainer = weldContainer;
+	}
+
+	/**
+	 * Shuts down the CDI container, closes the class loader and deletes the deployment directory.
+	 */
+	void close() throws DeploymentException {
+		try {
+			if ( weldContainer != null ) {
+				weldContainer.shutdown();
+			}
+			classLoader.close();
+			try ( Stream<Path> paths = Files.walk( directory.toPath() ) ) {
+				for ( Path path : (Iterable<Path>) paths.sorted( Comparator.reverseOrder() )::iterator ) {
+					Files.delete( path );
+				}
+			}
+		}
+		catch ( IOException e ) {
+			throw new DeploymentException( "Unable to clean up the deployment directory " + directory, e );
+		}
+		finally {
+			weldContainer = null;
+		}
+	}
+}
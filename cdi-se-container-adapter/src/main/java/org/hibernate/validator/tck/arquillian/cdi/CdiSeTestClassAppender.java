@@ -0,0 +1,27 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian.cdi;
+
+import org.jboss.arquillian.container.test.spi.client.deployment.ApplicationArchiveProcessor;
+import org.jboss.arquillian.test.spi.TestClass;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.container.ClassContainer;
+
+/**
+ * Adds the test class and its nested classes to the deployments, as the protocols of a Java EE container do. The test
+ * methods are executed on an instance of the test class loaded by the class loader of the deployment, see
+ * {@link CdiSeProtocol}.
+ */
+public class CdiSeTestClassAppender implements ApplicationArchiveProcessor {
+
+	@Override
+	public void process(Archive<?> applicationArchive, TestClass testClass) {
+		if ( applicationArchive instanceof ClassContainer ) {
+			( (ClassContainer<?>) applicationArchive ).addClass( testClass.getJavaClass() );
+		}
+	}
+}
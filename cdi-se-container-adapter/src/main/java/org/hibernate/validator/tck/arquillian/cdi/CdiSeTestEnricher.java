@@ -0,0 +1,52 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian.cdi;
+
+import java.lang.reflect.Method;
+
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.InjectionTarget;
+
+import org.jboss.arquillian.core.api.Instance;
+import org.jboss.arquillian.core.api.annotation.Inject;
+import org.jboss.arquillian.test.spi.TestEnricher;
+
+/**
+ * Performs the dependency injection ({@code @Inject}, {@code @Resource}, {@code @EJB}) into the test instances using
+ * the bean manager of the {@link CdiSeContainer}. The test methods are executed on instances injected by the
+ * {@link CdiSeProtocol}; this enricher only serves test instances enriched by Arquillian itself.
+ */
+public class CdiSeTestEnricher implements TestEnricher {
+
+	@Inject
+	private Instance<BeanManager> beanManager;
+
+	@Override
+	public void enrich(Object testCase) {
+		BeanManager manager = beanManager.get();
+		if ( manager == null ) {
+			return;
+		}
+
+		inject( manager, testCase );
+	}
+
+	@SuppressWarnings("unchecked")
+	static void inject(BeanManager manager, Object testCase) {
+		CreationalContext<Object> creationalContext = manager.createCreationalContext( null );
+		InjectionTarget<Object> injectionTarget = (InjectionTarget<Object>) manager.createInjectionTarget(
+				manager.createAnnotatedType( testCase.getClass() )
+		);
+		injectionTarget.inject( testCase, creationalContext );
+	}
+
+	@Override
+	public Object[] resolve(Method method) {
+		return new Object[method.getParameterTypes().length];
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian.cdi;
+
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.naming.Context;
+import javax.naming.spi.InitialContextFactory;
+
+/**
+ * Stand-in for the JNDI tree of a Java EE container, serving the objects bound by the {@link CdiSeContainer} for the
+ * current deployment, e.g. {@code java:comp/ValidatorFactory}.
+ * <p>
+ * Installed via the {@value Context#INITIAL_CONTEXT_FACTORY} system property while an archive is deployed.
+ */
+public class InMemoryInitialContextFactory implements InitialContextFactory {
+
+	private static final Map<String, Object> bindings = new ConcurrentHashMap<>();
+
+	static void bind(String name, Object object) {
+		bindings.put( name, object );
+	}
+
+	static void unbindAll() {
+		bindings.clear();
+	}
+
+	static Object lookup(String name) {
+		return bindings.get( name );
+	}
+
+	@Override
+	public Context getInitialContext(Hashtable<?, ?> environment) {
+		return new InMemoryNamingContext( Collections.unmodifiableMap( bindings ), environment );
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian.cdi;
+
+import java.util.Hashtable;
+import java.util.Map;
+
+import javax.naming.Binding;
+import javax.naming.Context;
+import javax.naming.Name;
+import javax.naming.NameClassPair;
+import javax.naming.NameNotFoundException;
+import javax.naming.NameParser;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.OperationNotSupportedException;
+
+/**
+ * A read-only naming context serving a fixed set of bindings. Only lookups are supported, all other operations fail
+ * with an {@link OperationNotSupportedException}.
+ */
+class InMemoryNamingContext implements Context {
+
+	private final Map<String, Object> bindings;
+	private final Hashtable<Object, Object> environment;
+
+	InMemoryNamingContext(Map<String, Object> bindings, Hashtable<?, ?> environment) {
+		this.bindings = bindings;
+		this.environment = environment != null ? new Hashtable<>( environment ) : new Hashtable<>();
+	}
+
+	@Override
+	public Object lookup(Name name) throws NamingException {
+		return lookup( name.toString() );
+	}
+
+	@Override
+	public Object lookup(String name) throws NamingException {
+		Object object = bindings.get( name );
+		if ( object == null ) {
+			throw new NameNotFoundException( name + " is not bound" );
+		}
+		return object;
+	}
+
+	@Override
+	public Object lookupLink(Name name) throws NamingException {
+		return lookup( name );
+	}
+
+	@Override
+	public Object lookupLink(String name) throws NamingException {
+		return lookup( name );
+	}
+
+	@Override
+	public void bind(Name name, Object obj) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public void bind(String name, Object obj) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public void rebind(Name name, Object obj) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public void rebind(String name, Object obj) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public void unbind(Name name) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public void unbind(String name) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public void rename(Name oldName, Name newName) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public void rename(String oldName, String newName) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public NamingEnumeration<NameClassPair> list(Name name) throws NamingException {
+		throw notSupported( "list" );
+	}
+
+	@Override
+	public NamingEnumeration<NameClassPair> list(String name) throws NamingException {
+		throw notSupported( "list" );
+	}
+
+	@Override
+	public NamingEnumeration<Binding> listBindings(Name name) throws NamingException {
+		throw notSupported( "listBindings" );
+	}
+
+	@Override
+	public NamingEnumeration<Binding> listBindings(String name) throws NamingException {
+		throw notSupported( "listBindings" );
+	}
+
+	@Override
+	public void destroySubcontext(Name name) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public void destroySubcontext(String name) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public Context createSubcontext(Name name) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public Context createSubcontext(String name) throws NamingException {
+		throw readOnly();
+	}
+
+	@Override
+	public NameParser getNameParser(Name name) throws NamingException {
+		throw notSupported( "getNameParser" );
+	}
+
+	@Override
+	public NameParser getNameParser(String name) throws NamingException {
+		throw notSupported( "getNameParser" );
+	}
+
+	@Override
+	public Name composeName(Name name, Name prefix) throws NamingException {
+		return ( (Name) prefix.clone() ).addAll( name );
+	}
+
+	@Override
+	public String composeName(String name, String prefix) throws NamingException {
+		return prefix.isEmpty() ? name : prefix + "/" + name;
+	}
+
+	@Override
+	public Object addToEnvironment(String propName, Object propVal) throws NamingException {
+		return environment.put( propName, propVal );
+	}
+
+	@Override
+	public Object removeFromEnvironment(String propName) throws NamingException {
+		return environment.remove( propName );
+	}
+
+	@Override
+	public Hashtable<?, ?> getEnvironment() throws NamingException {
+		return new Hashtable<>( environment );
+	}
+
+	@Override
+	public void close() throws NamingException {
+	}
+
+	@Override
+	public String getNameInNamespace() throws NamingException {
+		return "";
+	}
+
+	private static NamingException readOnly() {
+		return new OperationNotSupportedException( "The naming context of the CDI SE container is read-only" );
+	}
+
+	private static NamingException notSupported(String operation) {
+		return new OperationNotSupportedException( operation + "() is not supported by the naming context of the CDI SE container" );
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian.cdi;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.Type;
+
+import javax.annotation.Resource;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import org.jboss.weld.injection.spi.ResourceInjectionServices;
+import org.jboss.weld.injection.spi.ResourceReferenceFactory;
+import org.jboss.weld.injection.spi.helpers.SimpleResourceReference;
+
+/**
+ * Resolves {@code @Resource} injection points against the {@link InMemoryInitialContextFactory}. Injection points
+ * without an explicit name are resolved by type for the objects a Java EE container binds under {@code java:comp}.
+ */
+class NamingResourceInjectionServices implements ResourceInjectionServices {
+
+	private static final String JAVA_COMP = "java:comp/";
+	private static final String JAVA_COMP_ENV = "java:comp/env/";
+
+	@Override
+	public ResourceReferenceFactory<Object> registerResourceInjectionPoint(InjectionPoint injectionPoint) {
+		return () -> new SimpleResourceReference<>( resolveResource( injectionPoint ) );
+	}
+
+	@Override
+	public ResourceReferenceFactory<Object> registerResourceInjectionPoint(String jndiName, String mappedName) {
+		return () -> new SimpleResourceReference<>( resolveResource( jndiName, mappedName ) );
+	}
+
+	@Override
+	public Object resolveResource(InjectionPoint injectionPoint) {
+		return lookup( getName( injectionPoint ) );
+	}
+
+	@Override
+	public Object resolveResource(String jndiName, String mappedName) {
+		return lookup( jndiName );
+	}
+
+	@Override
+	public void cleanup() {
+	}
+
+	private static String getName(InjectionPoint injectionPoint) {
+		Resource resource = injectionPoint.getAnnotated().getAnnotation( Resource.class );
+		if ( resource != null && !resource.lookup().isEmpty() ) {
+			return resource.lookup();
+		}
+		if ( resource != null && !resource.name().isEmpty() ) {
+			return resource.name().startsWith( "java:" ) ? resource.name() : JAVA_COMP_ENV + resource.name();
+		}
+
+		Type type = injectionPoint.getType();
+		if ( type == ValidatorFactory.class ) {
+			return JAVA_COMP + "ValidatorFactory";
+		}
+		if ( type == Validator.class ) {
+			return JAVA_COMP + "Validator";
+		}
+		if ( type == BeanManager.class ) {
+			return JAVA_COMP + "BeanManager";
+		}
+
+		Member member = injectionPoint.getMember();
+		return JAVA_COMP_ENV + member.getDeclaringClass().getName() + "/" + member.getName();
+	}
+
+	private static Object lookup(String name) {
+		Object resource = InMemoryInitialContextFactory.lookup( name );
+		if ( resource == null ) {
+			throw new IllegalStateException( "No resource bound under " + name );
+		}
+		return resource;
+	}
+}
@@ -0,0 +1,28 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning the build of the deployment archive of a TCK test.
+ */
+@Name("org.hibernate.beanvalidation.tck.ArchiveBuild")
+@Label("TCK Archive Build")
+@Description("Build of the deployment archive of a TCK test")
+@Category("Bean Validation TCK")
+class ArchiveBuildEvent extends jdk.jfr.Event {
+
+	@Label("Test Class")
+	String testClass;
+
+	@Label("Archive Name")
+	String archiveName;
+}
@@ -0,0 +1,25 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning the deployment of an archive to the in JVM container of the TCK.
+ */
+@Name("org.hibernate.beanvalidation.tck.Deployment")
+@Label("TCK Deployment")
+@Description("Deployment of a TCK archive to the local container")
+@Category("Bean Validation TCK")
+class DeploymentEvent extends jdk.jfr.Event {
+
+	@Label("Deployment Name")
+	String deploymentName;
+}
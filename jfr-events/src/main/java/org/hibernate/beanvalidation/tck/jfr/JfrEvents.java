@@ -0,0 +1,82 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.jfr;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+
+import javax.validation.Validator;
+
+import jdk.jfr.Event;
+
+/**
+ * Emits the JFR events of the TCK harness. This is the only entry point of this module, invoked reflectively by
+ * {@code org.hibernate.beanvalidation.tck.util.jfr.TckEvents} and, for the deployment events, by the standalone
+ * container adapter once they have checked that this module is on the classpath and that the JVM supports JFR. Therefore this class only uses JFR-free types in its signatures.
+ */
+public final class JfrEvents {
+
+	private JfrEvents() {
+	}
+
+	/**
+	 * @return an action ending and committing the event
+	 */
+	public static Runnable beginTestMethod(String testClass, String testMethod, String specSections) {
+		TestMethodEvent event = new TestMethodEvent();
+		event.testClass = testClass;
+		event.testMethod = testMethod;
+		event.specSections = specSections;
+		return begin( event );
+	}
+
+	/**
+	 * @return an action ending and committing the event
+	 */
+	public static Runnable beginArchiveBuild(String testClass, String archiveName) {
+		ArchiveBuildEvent event = new ArchiveBuildEvent();
+		event.testClass = testClass;
+		event.archiveName = archiveName;
+		return begin( event );
+	}
+
+	/**
+	 * @return an action ending and committing the event
+	 */
+	public static Runnable beginDeployment(String deploymentName) {
+		DeploymentEvent event = new DeploymentEvent();
+		event.deploymentName = deploymentName;
+		return begin( event );
+	}
+
+	/**
+	 * @return a validator emitting an event for each validation call
+	 */
+	public static Validator instrument(Validator validator) {
+		return (Validator) Proxy.newProxyInstance(
+				JfrEvents.class.getClassLoader(),
+				new Class<?>[] { Validator.class },
+				new ValidationEventInvocationHandler( validator )
+		);
+	}
+
+	/**
+	 * Starts a recording with the settings of the <i>profile</i> configuration.
+	 *
+	 * @return the recording, written to the given destination once it is closed
+	 */
+	public static Closeable startRecording(Path destination) throws IOException {
+		return JfrRecording.start( destination );
+	}
+
+	private static Runnable begin(Event event) {
+		event.begin();
+		return event::commit;
+	}
+}
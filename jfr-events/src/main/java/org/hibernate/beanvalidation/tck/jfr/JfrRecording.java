@@ -0,0 +1,56 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.jfr;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * A JFR recording started by the harness, written to its destination once it is closed.
+ */
+class JfrRecording implements Closeable {
+
+	private static final String CONFIGURATION = "profile";
+
+	private final Recording recording;
+	private final Path destination;
+
+	private JfrRecording(Recording recording, Path destination) {
+		this.recording = recording;
+		this.destination = destination;
+	}
+
+	static JfrRecording start(Path destination) throws IOException {
+		Recording recording;
+		try {
+			recording = new Recording( Configuration.getConfiguration( CONFIGURATION ) );
+		}
+		catch ( ParseException e ) {
+			throw new IOException( "Unable to read the JFR configuration " + CONFIGURATION, e );
+		}
+
+		recording.setName( "Bean Validation TCK " + destination.getFileName() );
+		recording.start();
+		return new JfrRecording( recording, destination );
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			recording.stop();
+			recording.dump( destination );
+		}
+		finally {
+			recording.close();
+		}
+	}
+}
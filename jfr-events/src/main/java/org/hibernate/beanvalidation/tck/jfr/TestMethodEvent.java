@@ -0,0 +1,32 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning the execution of a TCK test method.
+ */
+@Name("org.hibernate.beanvalidation.tck.TestMethod")
+@Label("TCK Test Method")
+@Description("Execution of a TCK test method")
+@Category("Bean Validation TCK")
+class TestMethodEvent extends jdk.jfr.Event {
+
+	@Label("Test Class")
+	String testClass;
+
+	@Label("Test Method")
+	String testMethod;
+
+	@Label("Spec Sections")
+	@Description("The spec sections asserted by the test method")
+	String specSections;
+}
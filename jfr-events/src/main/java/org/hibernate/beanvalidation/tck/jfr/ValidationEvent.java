@@ -0,0 +1,32 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning a validation call made by a TCK test.
+ */
+@Name("org.hibernate.beanvalidation.tck.Validation")
+@Label("TCK Validation")
+@Description("Validation call made through the validator of a TCK test")
+@Category("Bean Validation TCK")
+class ValidationEvent extends jdk.jfr.Event {
+
+	@Label("Operation")
+	@Description("The name of the invoked Validator or ExecutableValidator method")
+	String operation;
+
+	@Label("Bean Type")
+	Class<?> beanType;
+
+	@Label("Constraint Violations")
+	int constraintViolations;
+}
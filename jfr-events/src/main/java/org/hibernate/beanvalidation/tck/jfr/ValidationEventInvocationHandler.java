@@ -0,0 +1,85 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.jfr;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+
+import javax.validation.executable.ExecutableValidator;
+
+/**
+ * An invocation handler emitting a {@link ValidationEvent} for each validation call made through the proxied
+ * {@code Validator} or the {@code ExecutableValidator} retrieved from it.
+ */
+class ValidationEventInvocationHandler implements InvocationHandler {
+
+	private final Object delegate;
+
+	ValidationEventInvocationHandler(Object delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if ( "forExecutables".equals( method.getName() ) ) {
+			return Proxy.newProxyInstance(
+					ValidationEventInvocationHandler.class.getClassLoader(),
+					new Class<?>[] { ExecutableValidator.class },
+					new ValidationEventInvocationHandler( invokeDelegate( method, args ) )
+			);
+		}
+
+		if ( !method.getName().startsWith( "validate" ) ) {
+			return invokeDelegate( method, args );
+		}
+
+		ValidationEvent event = new ValidationEvent();
+		event.operation = method.getName();
+		event.beanType = getBeanType( args );
+		event.begin();
+
+		Object result = invokeDelegate( method, args );
+
+		event.end();
+		if ( event.shouldCommit() ) {
+			event.constraintViolations = result instanceof Set ? ( (Set<?>) result ).size() : 0;
+			event.commit();
+		}
+
+		return result;
+	}
+
+	private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke( delegate, args );
+		}
+		catch ( InvocationTargetException e ) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * The first parameter of all validation methods is either the validated object, its class or the declaring class of
+	 * the validated constructor.
+	 */
+	private static Class<?> getBeanType(Object[] args) {
+		if ( args == null || args.length == 0 || args[0] == null ) {
+			return null;
+		}
+		if ( args[0] instanceof Class ) {
+			return (Class<?>) args[0];
+		}
+		if ( args[0] instanceof Constructor ) {
+			return ( (Constructor<?>) args[0] ).getDeclaringClass();
+		}
+		return args[0].getClass();
+	}
+}
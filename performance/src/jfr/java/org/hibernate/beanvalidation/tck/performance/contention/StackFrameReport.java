@@ -0,0 +1,166 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.contention;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Ranks the stack frames of a given package by the number and the total duration of the events of a given type in a
+ * JFR recording. Each event is attributed to the top-most frame of the package, events without such a frame are only
+ * counted.
+ */
+public class StackFrameReport {
+
+	private final String eventType;
+	private final Map<String, Entry> entries = new HashMap<>();
+	private long totalEvents;
+	private long unattributedEvents;
+
+	private StackFrameReport(String eventType) {
+		this.eventType = eventType;
+	}
+
+	/**
+	 * Creates a report of the given recording.
+	 *
+	 * @param recording the JFR recording file
+	 * @param eventType the name of the event type to report on, e.g. {@code jdk.JavaMonitorEnter}
+	 * @param packageName the package whose frames the events should be attributed to
+	 *
+	 * @return the report
+	 *
+	 * @throws IOException if the recording cannot be read
+	 */
+	public static StackFrameReport of(Path recording, String eventType, String packageName) throws IOException {
+		StackFrameReport report = new StackFrameReport( eventType );
+
+		try ( RecordingFile recordingFile = new RecordingFile( recording ) ) {
+			while ( recordingFile.hasMoreEvents() ) {
+				RecordedEvent event = recordingFile.readEvent();
+				if ( eventType.equals( event.getEventType().getName() ) ) {
+					report.add( event, packageName );
+				}
+			}
+		}
+
+		return report;
+	}
+
+	private void add(RecordedEvent event, String packageName) {
+		totalEvents++;
+
+		String frame = getTopMostFrame( event.getStackTrace(), packageName );
+		if ( frame == null ) {
+			unattributedEvents++;
+			return;
+		}
+
+		Entry entry = entries.get( frame );
+		if ( entry == null ) {
+			entry = new Entry( frame );
+			entries.put( frame, entry );
+		}
+		entry.count++;
+		entry.duration = entry.duration.plus( event.getDuration() );
+	}
+
+	public long getTotalEvents() {
+		return totalEvents;
+	}
+
+	/**
+	 * @return the frames with at least one event, the ones with the longest total duration first
+	 */
+	public List<Entry> getEntries() {
+		List<Entry> sorted = new ArrayList<>( entries.values() );
+		Collections.sort( sorted );
+		return sorted;
+	}
+
+	/**
+	 * Formats the given number of top-ranked frames as a table.
+	 *
+	 * @param limit the maximum number of frames to include
+	 *
+	 * @return the formatted report
+	 */
+	public String format(int limit) {
+		StringBuilder sb = new StringBuilder();
+		sb.append( String.format( "%s: %d events, %d outside of the analyzed package%n", eventType, totalEvents, unattributedEvents ) );
+		sb.append( String.format( "%10s %14s  %s%n", "count", "duration (ms)", "frame" ) );
+
+		List<Entry> sorted = getEntries();
+		for ( Entry entry : sorted.subList( 0, Math.min( limit, sorted.size() ) ) ) {
+			sb.append( String.format( "%10d %14.3f  %s%n", entry.count, entry.duration.toNanos() / 1_000_000.0, entry.frame ) );
+		}
+
+		return sb.toString();
+	}
+
+	private static String getTopMostFrame(RecordedStackTrace stackTrace, String packageName) {
+		if ( stackTrace == null ) {
+			return null;
+		}
+
+		for ( RecordedFrame frame : stackTrace.getFrames() ) {
+			if ( frame.getMethod() == null ) {
+				continue;
+			}
+
+			String typeName = frame.getMethod().getType().getName();
+			if ( typeName.startsWith( packageName ) ) {
+				return typeName + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * The events attributed to one stack frame.
+	 */
+	public static class Entry implements Comparable<Entry> {
+
+		private final String frame;
+		private long count;
+		private Duration duration = Duration.ZERO;
+
+		private Entry(String frame) {
+			this.frame = frame;
+		}
+
+		public String getFrame() {
+			return frame;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public Duration getDuration() {
+			return duration;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			int result = other.duration.compareTo( duration );
+			return result != 0 ? result : Long.compare( other.count, count );
+		}
+	}
+}
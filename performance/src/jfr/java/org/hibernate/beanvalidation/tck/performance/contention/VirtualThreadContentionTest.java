@@ -0,0 +1,171 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.contention;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import jdk.jfr.Recording;
+
+import org.hibernate.beanvalidation.tck.performance.util.TckModels;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Validates the TCK models concurrently on virtual threads while recording pinned virtual threads and contended
+ * monitor enters with JFR. Afterwards the provider frames are ranked by the number and the duration of these events, as
+ * each {@code synchronized} section on the validation hot path limits the scalability of virtual thread based
+ * applications.
+ * <p>
+ * Virtual threads are only available as of Java 21. On older JVMs the models are validated on a pool of platform
+ * threads instead; the report is then restricted to monitor contention. When running the suite with Maven, the Java
+ * 21 runtime is set via the property {@code performance.jvm}. As the test uses the JFR API, which is not available on
+ * all Java 8 JDKs, it is only compiled with the {@code jfr} profile.
+ * <p>
+ * The following system properties are supported:
+ * <ul>
+ * <li>{@code contention.tasks}: the number of validation tasks to submit (default: 200000)</li>
+ * <li>{@code contention.requireVirtualThreads}: whether to fail instead of falling back to platform threads if virtual
+ * threads are not available (default: false)</li>
+ * <li>{@code contention.platformThreads}: the number of threads used if virtual threads are not available (default:
+ * 4 times the number of processors)</li>
+ * <li>{@code contention.threshold}: the minimum duration in microseconds of the recorded events (default: 0)</li>
+ * <li>{@code contention.recording}: the file the JFR recording is written to (default: target/contention.jfr)</li>
+ * <li>{@code contention.package}: the package whose frames are ranked (default: the package of the validation
+ * provider)</li>
+ * <li>{@code contention.topFrames}: the number of frames listed in the report (default: 20)</li>
+ * <li>{@code contention.maxPinnedEvents}: if set, the test fails if more pinned virtual thread events are attributed
+ * to the analyzed package</li>
+ * </ul>
+ */
+public class VirtualThreadContentionTest {
+
+	private static final Logger log = Logger.getLogger( VirtualThreadContentionTest.class.getName() );
+
+	private static final String VIRTUAL_THREAD_PINNED = "jdk.VirtualThreadPinned";
+	private static final String JAVA_MONITOR_ENTER = "jdk.JavaMonitorEnter";
+
+	private static final int TASKS = Integer.getInteger( "contention.tasks", 200_000 );
+	private static final boolean REQUIRE_VIRTUAL_THREADS = Boolean.getBoolean( "contention.requireVirtualThreads" );
+	private static final int PLATFORM_THREADS = Integer.getInteger( "contention.platformThreads", 4 * Runtime.getRuntime().availableProcessors() );
+	private static final long THRESHOLD = Long.getLong( "contention.threshold", 0L );
+	private static final String RECORDING = System.getProperty( "contention.recording", "target/contention.jfr" );
+	private static final int TOP_FRAMES = Integer.getInteger( "contention.topFrames", 20 );
+	private static final long MAX_PINNED_EVENTS = Long.getLong( "contention.maxPinnedEvents", -1L );
+
+	@Test
+	public void testValidationOnVirtualThreads() throws Exception {
+		List<Object> models = TckModels.getAllModels();
+		assertTrue( !models.isEmpty(), "No TCK models found" );
+
+		String packageName = System.getProperty(
+				"contention.package",
+				TestUtil.getValidationProviderUnderTest().getClass().getPackage().getName()
+		);
+		Path recordingFile = Paths.get( RECORDING ).toAbsolutePath();
+		Files.createDirectories( recordingFile.getParent() );
+
+		ExecutorService executor = newVirtualThreadPerTaskExecutor();
+		boolean virtualThreads = executor != null;
+		if ( !virtualThreads ) {
+			assertFalse(
+					REQUIRE_VIRTUAL_THREADS,
+					"Virtual threads are required but not supported by the JVM " + System.getProperty( "java.version" )
+			);
+			log.warning( "Virtual threads are not supported by this JVM, using " + PLATFORM_THREADS + " platform threads" );
+			executor = Executors.newFixedThreadPool( PLATFORM_THREADS );
+		}
+		ValidatorFactory validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+
+		try ( Recording recording = new Recording() ) {
+			recording.enable( VIRTUAL_THREAD_PINNED ).withStackTrace().withThreshold( Duration.ofNanos( THRESHOLD * 1000 ) );
+			recording.enable( JAVA_MONITOR_ENTER ).withStackTrace().withThreshold( Duration.ofNanos( THRESHOLD * 1000 ) );
+			recording.setDestination( recordingFile );
+			recording.start();
+
+			try {
+				validate( executor, validatorFactory.getValidator(), models );
+			}
+			finally {
+				recording.stop();
+			}
+		}
+		finally {
+			executor.shutdown();
+			validatorFactory.close();
+		}
+
+		log.info( "JFR recording written to " + recordingFile );
+
+		StackFrameReport monitorEnter = StackFrameReport.of( recordingFile, JAVA_MONITOR_ENTER, packageName );
+		log.info( "Monitor contention in " + packageName + ":\n" + monitorEnter.format( TOP_FRAMES ) );
+
+		if ( virtualThreads ) {
+			StackFrameReport pinned = StackFrameReport.of( recordingFile, VIRTUAL_THREAD_PINNED, packageName );
+			log.info( "Pinned virtual threads in " + packageName + ":\n" + pinned.format( TOP_FRAMES ) );
+
+			if ( MAX_PINNED_EVENTS >= 0 ) {
+				long attributed = 0;
+				for ( StackFrameReport.Entry entry : pinned.getEntries() ) {
+					attributed += entry.getCount();
+				}
+				assertTrue(
+						attributed <= MAX_PINNED_EVENTS,
+						attributed + " pinned virtual thread events in " + packageName + ", budget is " + MAX_PINNED_EVENTS
+				);
+			}
+		}
+	}
+
+	private static void validate(ExecutorService executor, Validator validator, List<Object> models) throws Exception {
+		List<Future<?>> futures = new ArrayList<>( TASKS );
+
+		for ( int i = 0; i < TASKS; i++ ) {
+			final Object model = models.get( i % models.size() );
+			futures.add( executor.submit( new Runnable() {
+
+				@Override
+				public void run() {
+					validator.validate( model );
+				}
+			} ) );
+		}
+
+		for ( Future<?> future : futures ) {
+			future.get();
+		}
+	}
+
+	/**
+	 * Creates an executor starting a new virtual thread per task. The executor is retrieved reflectively as the TCK is
+	 * compiled for Java 8.
+	 *
+	 * @return the executor or {@code null} if virtual threads are not supported by this JVM
+	 */
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+		}
+		catch ( ReflectiveOperationException e ) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,299 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.access;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.validation.constraints.AssertTrue;
+
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the validation of beans which only differ in where their constraints are declared: on private, public or
+ * inherited fields, or on public, private or inherited {@code get} and {@code is} getters.
+ * <p>
+ * Each bean has five {@code boolean} properties with an {@code @AssertTrue} constraint, so the cost of accessing the
+ * property values dominates the cost of the constraint validators. Compare the results with
+ * {@link ReflectiveAccessBenchmark} to see how much of the difference is caused by the reflective access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessStrategyBenchmark {
+
+	@Param
+	public Model model;
+
+	private ValidatorFactory validatorFactory;
+	private Validator validator;
+	private Object validBean;
+	private Object invalidBean;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+		validator = validatorFactory.getValidator();
+		validBean = model.create( true );
+		invalidBean = model.create( false );
+
+		int violations = validator.validate( invalidBean ).size();
+		if ( violations != 5 ) {
+			throw new IllegalStateException( "Expected 5 violations for " + model + " but got " + violations );
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		validatorFactory.close();
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> validateValidBean() {
+		return validator.validate( validBean );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> validateInvalidBean() {
+		return validator.validate( invalidBean );
+	}
+
+	public enum Model {
+		PRIVATE_FIELDS( PrivateFields::new ),
+		PUBLIC_FIELDS( PublicFields::new ),
+		INHERITED_FIELDS( InheritedFields::new ),
+		PUBLIC_GET_GETTERS( PublicGetGetters::new ),
+		PRIVATE_GET_GETTERS( PrivateGetGetters::new ),
+		INHERITED_GET_GETTERS( InheritedGetGetters::new ),
+		PUBLIC_IS_GETTERS( PublicIsGetters::new ),
+		PRIVATE_IS_GETTERS( PrivateIsGetters::new ),
+		INHERITED_IS_GETTERS( InheritedIsGetters::new );
+
+		private final Function<Boolean, Object> factory;
+
+		Model(Function<Boolean, Object> factory) {
+			this.factory = factory;
+		}
+
+		private Object create(boolean valid) {
+			return factory.apply( valid );
+		}
+	}
+
+	private static class PrivateFields {
+
+		@AssertTrue
+		private final boolean a;
+		@AssertTrue
+		private final boolean b;
+		@AssertTrue
+		private final boolean c;
+		@AssertTrue
+		private final boolean d;
+		@AssertTrue
+		private final boolean e;
+
+		private PrivateFields(boolean valid) {
+			a = b = c = d = e = valid;
+		}
+	}
+
+	public static class PublicFields {
+
+		@AssertTrue
+		public final boolean a;
+		@AssertTrue
+		public final boolean b;
+		@AssertTrue
+		public final boolean c;
+		@AssertTrue
+		public final boolean d;
+		@AssertTrue
+		public final boolean e;
+
+		private PublicFields(boolean valid) {
+			a = b = c = d = e = valid;
+		}
+	}
+
+	private static class InheritedFields extends PrivateFields {
+
+		private InheritedFields(boolean valid) {
+			super( valid );
+		}
+	}
+
+	public static class PublicGetGetters {
+
+		private final boolean valid;
+
+		private PublicGetGetters(boolean valid) {
+			this.valid = valid;
+		}
+
+		@AssertTrue
+		public boolean getA() {
+			return valid;
+		}
+
+		@AssertTrue
+		public boolean getB() {
+			return valid;
+		}
+
+		@AssertTrue
+		public boolean getC() {
+			return valid;
+		}
+
+		@AssertTrue
+		public boolean getD() {
+			return valid;
+		}
+
+		@AssertTrue
+		public boolean getE() {
+			return valid;
+		}
+	}
+
+	private static class PrivateGetGetters {
+
+		private final boolean valid;
+
+		private PrivateGetGetters(boolean valid) {
+			this.valid = valid;
+		}
+
+		@AssertTrue
+		private boolean getA() {
+			return valid;
+		}
+
+		@AssertTrue
+		private boolean getB() {
+			return valid;
+		}
+
+		@AssertTrue
+		private boolean getC() {
+			return valid;
+		}
+
+		@AssertTrue
+		private boolean getD() {
+			return valid;
+		}
+
+		@AssertTrue
+		private boolean getE() {
+			return valid;
+		}
+	}
+
+	private static class InheritedGetGetters extends PublicGetGetters {
+
+		private InheritedGetGetters(boolean valid) {
+			super( valid );
+		}
+	}
+
+	public static class PublicIsGetters {
+
+		private final boolean valid;
+
+		private PublicIsGetters(boolean valid) {
+			this.valid = valid;
+		}
+
+		@AssertTrue
+		public boolean isA() {
+			return valid;
+		}
+
+		@AssertTrue
+		public boolean isB() {
+			return valid;
+		}
+
+		@AssertTrue
+		public boolean isC() {
+			return valid;
+		}
+
+		@AssertTrue
+		public boolean isD() {
+			return valid;
+		}
+
+		@AssertTrue
+		public boolean isE() {
+			return valid;
+		}
+	}
+
+	private static class PrivateIsGetters {
+
+		private final boolean valid;
+
+		private PrivateIsGetters(boolean valid) {
+			this.valid = valid;
+		}
+
+		@AssertTrue
+		private boolean isA() {
+			return valid;
+		}
+
+		@AssertTrue
+		private boolean isB() {
+			return valid;
+		}
+
+		@AssertTrue
+		private boolean isC() {
+			return valid;
+		}
+
+		@AssertTrue
+		private boolean isD() {
+			return valid;
+		}
+
+		@AssertTrue
+		private boolean isE() {
+			return valid;
+		}
+	}
+
+	private static class InheritedIsGetters extends PublicIsGetters {
+
+		private InheritedIsGetters(boolean valid) {
+			super( valid );
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.access;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the strategies a provider may use to read a property value outside of any validation: direct access as
+ * a baseline, {@code Field.get()} and {@code Method.invoke()} on accessible members as well as {@code MethodHandle}s
+ * held in constants and invoked with their exact type, so neither boxing nor an adaptation of the handle is involved. The difference between the reflective and the method handle variants is the overhead which a
+ * provider using reflection pays per accessed property, see {@link AccessStrategyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectiveAccessBenchmark {
+
+	private static final Field FIELD;
+	private static final Method GETTER;
+	private static final MethodHandle FIELD_HANDLE;
+	private static final MethodHandle GETTER_HANDLE;
+
+	static {
+		try {
+			FIELD = Bean.class.getDeclaredField( "value" );
+			FIELD.setAccessible( true );
+			GETTER = Bean.class.getDeclaredMethod( "isValue" );
+			GETTER.setAccessible( true );
+			FIELD_HANDLE = MethodHandles.lookup().unreflectGetter( FIELD );
+			GETTER_HANDLE = MethodHandles.lookup().unreflect( GETTER );
+		}
+		catch ( ReflectiveOperationException e ) {
+			throw new ExceptionInInitializerError( e );
+		}
+	}
+
+	private final Bean bean = new Bean( true );
+
+	@Benchmark
+	public boolean directField() {
+		return bean.value;
+	}
+
+	@Benchmark
+	public boolean directGetter() {
+		return bean.isValue();
+	}
+
+	@Benchmark
+	public Object reflectiveField() throws IllegalAccessException {
+		return FIELD.get( bean );
+	}
+
+	@Benchmark
+	public Object reflectiveGetter() throws ReflectiveOperationException {
+		return GETTER.invoke( bean );
+	}
+
+	@Benchmark
+	public boolean methodHandleField() throws Throwable {
+		return (boolean) FIELD_HANDLE.invokeExact( bean );
+	}
+
+	@Benchmark
+	public boolean methodHandleGetter() throws Throwable {
+		return (boolean) GETTER_HANDLE.invokeExact( bean );
+	}
+
+	private static class Bean {
+
+		private final boolean value;
+
+		private Bean(boolean value) {
+			this.value = value;
+		}
+
+		private boolean isValue() {
+			return value;
+		}
+	}
+}
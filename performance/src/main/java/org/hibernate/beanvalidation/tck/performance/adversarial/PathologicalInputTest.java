@@ -0,0 +1,229 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.adversarial;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Validates adversarial values of the properties of {@link UntrustedRequest}, as an attacker could send them in a
+ * request body, and fails if any single validation takes longer than a time budget. The inputs target the worst case of
+ * typical implementations of the built-in constraints: regular expressions prone to backtracking for {@code @Email},
+ * the conversion of huge or extremely scaled numbers for {@code @Digits}, {@code @DecimalMin} and {@code @DecimalMax},
+ * multi-megabyte strings for {@code @NotBlank} and {@code @Size} and huge collections with constrained elements.
+ * <p>
+ * Each value is validated via {@code validateValue()} after the metadata of the property has been initialized with a
+ * benign value. Validations still running when the budget is exhausted are abandoned, so a hanging validation does not
+ * block the remaining cases; its thread keeps running until it completes, though, and may slow down the following
+ * cases. Runtime exceptions raised by the validation are accepted, errors such as a {@code StackOverflowError} fail the
+ * test.
+ * <p>
+ * The following system properties are supported:
+ * <ul>
+ * <li>{@code adversarial.budget}: the maximum duration of a single validation in milliseconds (default: 1000)</li>
+ * <li>{@code adversarial.repetitions}: the number of times each value is validated, the slowest validation is compared
+ * to the budget (default: 3)</li>
+ * <li>{@code adversarial.knownFailures}: a file listing the known failures of the provider under test, one case per
+ * line as {@code <property>, <description>}; lines starting with {@code #} are ignored. Known failures are reported as
+ * skipped instead of failed, known failures which pass are logged (default: none)</li>
+ * </ul>
+ */
+public class PathologicalInputTest {
+
+	private static final Logger log = Logger.getLogger( PathologicalInputTest.class.getName() );
+
+	private static final long BUDGET = Long.getLong( "adversarial.budget", 1000L );
+	private static final int REPETITIONS = Integer.getInteger( "adversarial.repetitions", 3 );
+	private static final String KNOWN_FAILURES = System.getProperty( "adversarial.knownFailures" );
+
+	private ValidatorFactory validatorFactory;
+	private Validator validator;
+	private ExecutorService executor;
+	private Set<String> knownFailures;
+
+	@BeforeClass
+	public void createValidator() throws IOException {
+		validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+		validator = validatorFactory.getValidator();
+		executor = newExecutor();
+		knownFailures = readKnownFailures();
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void closeValidatorFactory() {
+		executor.shutdownNow();
+		validatorFactory.close();
+	}
+
+	@DataProvider
+	public Object[][] pathologicalInputs() {
+		return new Object[][] {
+				// @Email
+				{ "email", "local part of 100,000 dot-separated labels", (Supplier<?>) () -> repeat( "a.", 50_000 ) + "a@example.com" },
+				{ "email", "local part of 100,000 dot-separated labels without domain", (Supplier<?>) () -> repeat( "a.", 50_000 ) + "!" },
+				{ "email", "100,000 characters followed by an invalid one", (Supplier<?>) () -> repeat( "a", 100_000 ) + "\u0000@example.com" },
+				{ "email", "domain of 50,000 labels", (Supplier<?>) () -> "a@" + repeat( "a.", 50_000 ) + "-" },
+				{ "email", "domain of 100,000 hyphens", (Supplier<?>) () -> "a@a" + repeat( "-", 100_000 ) },
+				{ "email", "quoted local part of 100,000 escapes", (Supplier<?>) () -> "\"" + repeat( "\\a", 50_000 ) + "@example.com" },
+				// @Digits
+				{ "amount", "BigDecimal of 1,000,000 digits", (Supplier<?>) () -> new BigDecimal( repeat( "9", 1_000_000 ) ) },
+				{ "amount", "BigDecimal 1E+1000000000", (Supplier<?>) () -> new BigDecimal( "1E+1000000000" ) },
+				{ "amount", "BigDecimal 1E-1000000000", (Supplier<?>) () -> new BigDecimal( "1E-1000000000" ) },
+				{ "amountText", "string of 1,000,000 digits", (Supplier<?>) () -> repeat( "9", 1_000_000 ) },
+				{ "amountText", "string 1e1000000000", (Supplier<?>) () -> "1e1000000000" },
+				{ "amountText", "string 1e-1000000000", (Supplier<?>) () -> "1e-1000000000" },
+				// @DecimalMin/@DecimalMax
+				{ "price", "BigDecimal of 1,000,000 digits", (Supplier<?>) () -> new BigDecimal( repeat( "9", 1_000_000 ) ) },
+				{ "price", "BigDecimal 1E+1000000000", (Supplier<?>) () -> new BigDecimal( "1E+1000000000" ) },
+				{ "price", "BigDecimal -1E-1000000000", (Supplier<?>) () -> new BigDecimal( "-1E-1000000000" ) },
+				{ "priceText", "string of 1,000,000 digits", (Supplier<?>) () -> repeat( "9", 1_000_000 ) },
+				{ "priceText", "string 1e1000000000", (Supplier<?>) () -> "1e1000000000" },
+				{ "priceText", "string 0.(1,000,000 zeros)1", (Supplier<?>) () -> "0." + repeat( "0", 1_000_000 ) + "1" },
+				// @Size
+				{ "comment", "string of 10,000,000 characters", (Supplier<?>) () -> repeat( "a", 10_000_000 ) },
+				{ "tags", "list of 1,000,000 elements", (Supplier<?>) () -> Collections.nCopies( 1_000_000, "tag" ) },
+				{ "tags", "list of 1,000,000 blank elements", (Supplier<?>) () -> Collections.nCopies( 1_000_000, " " ) },
+				{ "attributes", "map of 1,000,000 entries", (Supplier<?>) () -> map( 1_000_000 ) },
+				// @NotBlank
+				{ "name", "8 MB of spaces", (Supplier<?>) () -> repeat( " ", 8_000_000 ) },
+				{ "name", "8 MB of em spaces", (Supplier<?>) () -> repeat( "\u2003", 8_000_000 ) },
+				{ "name", "8 MB of spaces followed by a letter", (Supplier<?>) () -> repeat( " ", 8_000_000 ) + "a" },
+		};
+	}
+
+	@Test(dataProvider = "pathologicalInputs")
+	public void testValidationWithinBudget(String property, String description, Supplier<?> input) throws Exception {
+		// initializes the metadata of the property
+		validator.validateValue( UntrustedRequest.class, property, null );
+
+		Object value = input.get();
+		long[] durations = new long[REPETITIONS];
+		int violations = 0;
+
+		for ( int i = 0; i < REPETITIONS; i++ ) {
+			long start = System.nanoTime();
+			Future<Integer> validation = executor.submit( () -> validator.validateValue( UntrustedRequest.class, property, value ).size() );
+			try {
+				violations = validation.get( BUDGET, TimeUnit.MILLISECONDS );
+			}
+			catch ( TimeoutException e ) {
+				validation.cancel( true );
+				executor.shutdownNow();
+				executor = newExecutor();
+				fail( property, description, "validation still running after the budget of " + BUDGET + " ms", null );
+			}
+			catch ( ExecutionException e ) {
+				// an exception raised quickly is an acceptable reaction to the input, unless it is an error
+				if ( e.getCause() instanceof Error ) {
+					fail( property, description, "validation failed with " + e.getCause(), e.getCause() );
+				}
+				log.info( property + ", " + description + ": " + e.getCause() );
+			}
+			durations[i] = System.nanoTime() - start;
+		}
+
+		Arrays.sort( durations );
+		log.info( String.format(
+				"%s, %s: %d violations, %.1f ms min, %.1f ms max",
+				property,
+				description,
+				violations,
+				durations[0] / 1_000_000.0,
+				durations[durations.length - 1] / 1_000_000.0
+		) );
+
+		if ( TimeUnit.NANOSECONDS.toMillis( durations[durations.length - 1] ) > BUDGET ) {
+			fail( property, description, String.format(
+					"validation took %.1f ms, budget is %d ms",
+					durations[durations.length - 1] / 1_000_000.0,
+					BUDGET
+			), null );
+		}
+
+		if ( knownFailures.contains( property + ", " + description ) ) {
+			log.warning( property + ", " + description + ": listed as known failure, but passed" );
+		}
+	}
+
+	/**
+	 * Fails the current case, or skips it if it is a known failure of the provider under test.
+	 */
+	private void fail(String property, String description, String message, Throwable cause) {
+		String failure = property + ", " + description + ": " + message;
+		if ( knownFailures.contains( property + ", " + description ) ) {
+			throw new SkipException( "Known failure: " + failure );
+		}
+		Assert.fail( failure, cause );
+	}
+
+	private static Set<String> readKnownFailures() throws IOException {
+		if ( KNOWN_FAILURES == null || !Files.exists( Paths.get( KNOWN_FAILURES ) ) ) {
+			return Collections.emptySet();
+		}
+
+		Set<String> knownFailures = new HashSet<>();
+		for ( String line : Files.readAllLines( Paths.get( KNOWN_FAILURES ), StandardCharsets.UTF_8 ) ) {
+			line = line.trim();
+			if ( !line.isEmpty() && !line.startsWith( "#" ) ) {
+				knownFailures.add( line );
+			}
+		}
+		return knownFailures;
+	}
+
+	private static ExecutorService newExecutor() {
+		return Executors.newSingleThreadExecutor( runnable -> {
+			Thread thread = new Thread( runnable, "pathological-input-validation" );
+			thread.setDaemon( true );
+			return thread;
+		} );
+	}
+
+	private static String repeat(String string, int times) {
+		StringBuilder sb = new StringBuilder( string.length() * times );
+		for ( int i = 0; i < times; i++ ) {
+			sb.append( string );
+		}
+		return sb.toString();
+	}
+
+	private static Map<String, String> map(int size) {
+		Map<String, String> map = new HashMap<>( size * 2 );
+		for ( int i = 0; i < size; i++ ) {
+			map.put( String.valueOf( i ), "value" );
+		}
+		return map;
+	}
+}
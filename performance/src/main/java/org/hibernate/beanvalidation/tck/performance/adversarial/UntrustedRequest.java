@@ -0,0 +1,55 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.adversarial;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+/**
+ * A request body whose properties are bound from untrusted input, constrained with the built-in constraints covered by
+ * {@code EmailConstraintTest}, {@code DigitsConstraintTest}, {@code DecimalMinDecimalMaxConstraintsTest},
+ * {@code SizeConstraintTest} and {@code NotBlankConstraintTest}.
+ */
+public class UntrustedRequest {
+
+	@Email
+	private String email;
+
+	@Digits(integer = 10, fraction = 2)
+	private BigDecimal amount;
+
+	@Digits(integer = 10, fraction = 2)
+	private String amountText;
+
+	@DecimalMin("0.00")
+	@DecimalMax("1000000.00")
+	private BigDecimal price;
+
+	@DecimalMin("0.00")
+	@DecimalMax("1000000.00")
+	private String priceText;
+
+	@Size(max = 1000)
+	private String comment;
+
+	@Size(max = 100)
+	private List<@NotBlank String> tags;
+
+	@Size(max = 100)
+	private Map<String, String> attributes;
+
+	@NotBlank
+	private String name;
+}
@@ -0,0 +1,278 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.cdi;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.inject.spi.Extension;
+import javax.validation.ConstraintViolationException;
+
+import org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.BookingService;
+import org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.CalendarService;
+import org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.CalendarServiceWithCascadingReturnValue;
+import org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.ShipmentService;
+import org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.ShipmentServiceImpl;
+import org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.global.ExecutableValidationBasedOnGlobalConfigurationTest;
+import org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.types.DeliveryService;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks business method invocations on the CDI beans of the {@code integration.cdi.executable} tests, with and
+ * without the method validation interceptor of the provider.
+ * <p>
+ * The beans are obtained from embedded Weld SE containers. If {@code validation} is set, the portable extensions found
+ * on the class path, i.e. the CDI integration of the provider, are added to the containers; otherwise the beans are
+ * plain instances and the benchmarks show the cost of the invoked methods alone. One container uses the default
+ * configuration, the other one the <i>validation.xml</i> of the {@code global} tests, which only validates getters by
+ * default.
+ * <p>
+ * The benchmarks cover valid and invalid parameters and return values, cross-parameter constraints, cascaded return
+ * values and the {@code @ValidateOnExecution} types declared on methods, classes and interfaces. The {@code notValidated*}
+ * benchmarks invoke constrained methods which must not be validated according to their executable types; their
+ * difference to the invocations without validation is the overhead of the interceptor alone. Invocations raising a
+ * {@code ConstraintViolationException} return the exception.
+ * <p>
+ * The models of the {@code priority} tests are not used, as their interceptors assert the order of a single invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationInterceptorBenchmark {
+
+	private static final String GLOBAL_VALIDATION_XML = "org/hibernate/beanvalidation/tck/tests/integration/cdi/executable/global/validation-"
+			+ ExecutableValidationBasedOnGlobalConfigurationTest.class.getSimpleName() + ".xml";
+
+	@Param({ "false", "true" })
+	public boolean validation;
+
+	private WeldContainer container;
+	private WeldContainer globalContainer;
+
+	private BookingService bookingService;
+	private CalendarService calendarService;
+	private CalendarServiceWithCascadingReturnValue cascadingCalendarService;
+	private ShipmentService shipmentService;
+	private DeliveryService deliveryService;
+	private org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.types.CalendarService typesCalendarService;
+	private org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.global.CalendarService globalCalendarService;
+
+	private Date start;
+	private Date end;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		container = startContainer(
+				"validation-interceptor-benchmark",
+				BookingService.class,
+				CalendarService.class,
+				CalendarServiceWithCascadingReturnValue.class,
+				ShipmentServiceImpl.class,
+				DeliveryService.class,
+				org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.types.CalendarService.class
+		);
+
+		bookingService = container.select( BookingService.class ).get();
+		calendarService = container.select( CalendarService.class ).get();
+		cascadingCalendarService = container.select( CalendarServiceWithCascadingReturnValue.class ).get();
+		shipmentService = container.select( ShipmentService.class ).get();
+		deliveryService = container.select( DeliveryService.class ).get();
+		typesCalendarService = container.select( org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.types.CalendarService.class ).get();
+
+		// the validation.xml of the global tests is exposed via the TCCL while the container and its extensions boot
+		Thread thread = Thread.currentThread();
+		ClassLoader originalClassLoader = thread.getContextClassLoader();
+		thread.setContextClassLoader( new ValidationXmlClassLoader( ValidationInterceptorBenchmark.class.getClassLoader() ) );
+		try {
+			globalContainer = startContainer(
+					"validation-interceptor-benchmark-global",
+					org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.global.CalendarService.class
+			);
+			globalCalendarService = globalContainer.select( org.hibernate.beanvalidation.tck.tests.integration.cdi.executable.global.CalendarService.class )
+					.get();
+
+			if ( validation != ( invalidGlobalGetter() instanceof ConstraintViolationException ) ) {
+				throw new IllegalStateException( "The global executable types were not applied to the validation interceptor" );
+			}
+		}
+		finally {
+			thread.setContextClassLoader( originalClassLoader );
+		}
+
+		start = new Date( System.currentTimeMillis() + 60_000 );
+		end = new Date( System.currentTimeMillis() + 120_000 );
+
+		if ( validation != ( invalidParameters() instanceof ConstraintViolationException ) ) {
+			throw new IllegalStateException( "Expected the validation interceptor to be " + ( validation ? "enabled" : "disabled" ) );
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if ( globalContainer != null ) {
+			globalContainer.shutdown();
+		}
+		if ( container != null ) {
+			container.shutdown();
+		}
+	}
+
+	@Benchmark
+	public Object validParametersAndReturnValue() {
+		return bookingService.placeBooking( "10001" );
+	}
+
+	@Benchmark
+	public Object invalidParameters() {
+		try {
+			return bookingService.placeBooking( "9999" );
+		}
+		catch ( ConstraintViolationException e ) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object invalidCrossParameters() {
+		try {
+			calendarService.createEvent( start, end );
+			return null;
+		}
+		catch ( ConstraintViolationException e ) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object invalidCascadedReturnValue() {
+		try {
+			return cascadingCalendarService.createValidEvent();
+		}
+		catch ( ConstraintViolationException e ) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object notValidatedGetter() {
+		return calendarService.getEvent();
+	}
+
+	@Benchmark
+	public Object interfaceLevelAll() {
+		shipmentService.findShipment( "id" );
+		return shipmentService;
+	}
+
+	@Benchmark
+	public Object classLevelImplicit() {
+		deliveryService.findDelivery( "id" );
+		return deliveryService;
+	}
+
+	@Benchmark
+	public Object notValidatedMethodLevelNone() {
+		return typesCalendarService.createEvent( "title" );
+	}
+
+	@Benchmark
+	public Object methodLevelNonGetterMethods() {
+		return typesCalendarService.createEvent( (short) 1 );
+	}
+
+	@Benchmark
+	public Object methodLevelAll() {
+		return typesCalendarService.createEvent( 1.0d );
+	}
+
+	@Benchmark
+	public Object invalidMethodLevelGetterMethods() {
+		try {
+			return typesCalendarService.getSpecialEvent();
+		}
+		catch ( ConstraintViolationException e ) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object notValidatedGlobalNonGetterMethod() {
+		return globalCalendarService.createEvent( "title" );
+	}
+
+	@Benchmark
+	public Object invalidGlobalGetter() {
+		try {
+			return globalCalendarService.getEvent();
+		}
+		catch ( ConstraintViolationException e ) {
+			return e;
+		}
+	}
+
+	private WeldContainer startContainer(String containerId, Class<?>... beanClasses) {
+		Weld weld = new Weld( containerId )
+				.disableDiscovery()
+				.skipShutdownHook()
+				.beanClasses( beanClasses );
+
+		// extensions are not loaded automatically if the discovery is disabled
+		if ( validation ) {
+			for ( Extension extension : ServiceLoader.load( Extension.class ) ) {
+				weld.addExtension( extension );
+			}
+		}
+
+		return weld.initialize();
+	}
+
+	/**
+	 * Exposes the <i>validation.xml</i> of the {@code global} tests as <i>META-INF/validation.xml</i>.
+	 */
+	private static class ValidationXmlClassLoader extends ClassLoader {
+
+		private static final String VALIDATION_XML = "META-INF/validation.xml";
+
+		private ValidationXmlClassLoader(ClassLoader parent) {
+			super( parent );
+		}
+
+		@Override
+		public URL getResource(String name) {
+			return VALIDATION_XML.equals( name ) ? super.getResource( GLOBAL_VALIDATION_XML ) : super.getResource( name );
+		}
+
+		@Override
+		public Enumeration<URL> getResources(String name) throws IOException {
+			return VALIDATION_XML.equals( name )
+					? Collections.enumeration( Collections.singleton( super.getResource( GLOBAL_VALIDATION_XML ) ) )
+					: super.getResources( name );
+		}
+	}
+}
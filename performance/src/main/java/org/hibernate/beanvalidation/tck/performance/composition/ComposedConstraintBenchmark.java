@@ -0,0 +1,246 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.composition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.validation.metadata.BeanDescriptor;
+
+import org.hibernate.beanvalidation.tck.performance.util.InMemoryCompiler;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the metadata build and the validation of generated composed constraints of a configurable nesting depth
+ * and number of composing constraints.
+ * <p>
+ * The constraint of level 1 is composed of {@code composingConstraints} leaf constraints; the constraint of each
+ * following level is composed of the constraint of the previous level and {@code composingConstraints - 1} further leaf
+ * constraints. The bean has one property annotated with the constraint of level {@code depth}. All leaf constraints
+ * fail for an empty string, so the invalid bean shows whether the provider stops evaluating the remaining composing
+ * constraints of a {@code @ReportAsSingleViolation} constraint once the first one failed; the leaf evaluations are
+ * reported as secondary results of {@link #validateInvalidBean(LeafEvaluations)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComposedConstraintBenchmark {
+
+	private static final String PACKAGE = "org.hibernate.beanvalidation.tck.performance.composition.generated";
+
+	@Param({ "1", "3", "6" })
+	public int depth;
+
+	@Param({ "2", "5" })
+	public int composingConstraints;
+
+	@Param({ "false", "true" })
+	public boolean reportAsSingleViolation;
+
+	private Class<?> beanClass;
+	private ValidatorFactory validatorFactory;
+	private Validator validator;
+	private Object validBean;
+	private Object invalidBean;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ClassLoader classLoader = InMemoryCompiler.compile( generateSources(), ComposedConstraintBenchmark.class.getClassLoader() );
+		beanClass = classLoader.loadClass( PACKAGE + ".Bean" );
+		validBean = beanClass.getConstructor( String.class ).newInstance( "valid" );
+		invalidBean = beanClass.getConstructor( String.class ).newInstance( "" );
+
+		validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+		validator = validatorFactory.getValidator();
+
+		long before = CountingLeafValidator.getEvaluations();
+		int violations = validator.validate( invalidBean ).size();
+		long evaluations = CountingLeafValidator.getEvaluations() - before;
+
+		int expectedViolations = reportAsSingleViolation ? 1 : getLeafConstraintCount();
+		if ( violations != expectedViolations ) {
+			throw new IllegalStateException( "Expected " + expectedViolations + " violations for the invalid bean, but got " + violations );
+		}
+		if ( !reportAsSingleViolation && evaluations != getLeafConstraintCount() ) {
+			throw new IllegalStateException( "Expected all " + getLeafConstraintCount() + " leaf constraints to be evaluated, but got " + evaluations + " evaluations" );
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		validatorFactory.close();
+	}
+
+	/**
+	 * Builds the metadata of the bean with a new factory, bootstrapped outside of the measured time, see
+	 * {@link #buildValidatorFactory()} for the cost of the factory.
+	 */
+	@Benchmark
+	public BeanDescriptor buildMetadata(ColdValidator cold) {
+		return cold.validator.getConstraintsForClass( beanClass );
+	}
+
+	@Benchmark
+	public Validator buildValidatorFactory() {
+		ValidatorFactory factory = TestUtil.getValidatorFactoryUnderTest();
+		try {
+			return factory.getValidator();
+		}
+		finally {
+			factory.close();
+		}
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> validateValidBean() {
+		return validator.validate( validBean );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> validateInvalidBean(LeafEvaluations leafEvaluations) {
+		leafEvaluations.validations++;
+		return validator.validate( invalidBean );
+	}
+
+	private int getLeafConstraintCount() {
+		return composingConstraints + ( depth - 1 ) * ( composingConstraints - 1 );
+	}
+
+	private Map<String, String> generateSources() {
+		Map<String, String> sources = new LinkedHashMap<>();
+
+		for ( int level = 1; level <= depth; level++ ) {
+			StringBuilder composingAnnotations = new StringBuilder();
+			int leaves = level == 1 ? composingConstraints : composingConstraints - 1;
+			if ( level > 1 ) {
+				composingAnnotations.append( "@Level" ).append( level - 1 ).append( '\n' );
+			}
+			for ( int leaf = 1; leaf <= leaves; leaf++ ) {
+				String leafName = "Leaf" + level + "_" + leaf;
+				composingAnnotations.append( '@' ).append( leafName ).append( '\n' );
+				sources.put( PACKAGE + "." + leafName, constraint( leafName, leafName + ".Validator.class", "" ) );
+			}
+
+			String levelName = "Level" + level;
+			String annotations = ( reportAsSingleViolation ? "@ReportAsSingleViolation\n" : "" ) + composingAnnotations;
+			sources.put( PACKAGE + "." + levelName, constraint( levelName, "", annotations ) );
+		}
+
+		sources.put(
+				PACKAGE + ".Bean",
+				"package " + PACKAGE + ";\n"
+						+ "public class Bean {\n"
+						+ "	@Level" + depth + "\n"
+						+ "	private final String value;\n"
+						+ "	public Bean(String value) {\n"
+						+ "		this.value = value;\n"
+						+ "	}\n"
+						+ "}\n"
+		);
+
+		return sources;
+	}
+
+	/**
+	 * Generates a constraint annotation. Leaf constraints declare a nested validator, composed constraints declare
+	 * their composing constraints instead.
+	 */
+	private static String constraint(String name, String validatedBy, String annotations) {
+		StringBuilder source = new StringBuilder()
+				.append( "package " ).append( PACKAGE ).append( ";\n" )
+				.append( "import java.lang.annotation.*;\n" )
+				.append( "import javax.validation.*;\n" )
+				.append( "@Documented\n" )
+				.append( "@Constraint(validatedBy = { " ).append( validatedBy ).append( " })\n" )
+				.append( "@Target({ ElementType.FIELD, ElementType.METHOD, ElementType.ANNOTATION_TYPE })\n" )
+				.append( "@Retention(RetentionPolicy.RUNTIME)\n" )
+				.append( annotations )
+				.append( "public @interface " ).append( name ).append( " {\n" )
+				.append( "	String message() default \"" ).append( name ).append( "\";\n" )
+				.append( "	Class<?>[] groups() default { };\n" )
+				.append( "	Class<? extends Payload>[] payload() default { };\n" );
+
+		if ( !validatedBy.isEmpty() ) {
+			source.append( "	class Validator extends " ).append( CountingLeafValidator.class.getName() )
+					.append( '<' ).append( name ).append( "> {\n" )
+					.append( "	}\n" );
+		}
+
+		return source.append( "}\n" ).toString();
+	}
+
+	/**
+	 * A validator of a new factory for each invocation of {@link #buildMetadata(ColdValidator)}.
+	 */
+	@State(Scope.Thread)
+	public static class ColdValidator {
+
+		private ValidatorFactory validatorFactory;
+		private Validator validator;
+
+		@Setup(Level.Invocation)
+		public void setUp() {
+			validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+			validator = validatorFactory.getValidator();
+		}
+
+		@TearDown(Level.Invocation)
+		public void tearDown() {
+			validatorFactory.close();
+		}
+	}
+
+	/**
+	 * The validations of the invalid bean and the leaf constraint evaluations they caused per iteration. Without
+	 * {@code @ReportAsSingleViolation}, there are {@code composingConstraints + ( depth - 1 ) * ( composingConstraints - 1 )}
+	 * evaluations per validation; with it, fewer evaluations show that the provider stops after the first failing
+	 * composing constraint.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class LeafEvaluations {
+
+		public long validations;
+		public long leafEvaluations;
+
+		private long evaluationsBefore;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			validations = 0;
+			leafEvaluations = 0;
+			evaluationsBefore = CountingLeafValidator.getEvaluations();
+		}
+
+		@TearDown(Level.Iteration)
+		public void count() {
+			leafEvaluations = CountingLeafValidator.getEvaluations() - evaluationsBefore;
+		}
+	}
+}
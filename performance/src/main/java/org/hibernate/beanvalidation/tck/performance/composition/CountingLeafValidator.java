@@ -0,0 +1,37 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.composition;
+
+import java.lang.annotation.Annotation;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Base class of the validators of the generated leaf constraints, counting their evaluations. A value is valid if it
+ * is {@code null} or its string representation is not empty.
+ *
+ * @param <A> the generated constraint type
+ */
+public abstract class CountingLeafValidator<A extends Annotation> implements ConstraintValidator<A, Object> {
+
+	private static final LongAdder EVALUATIONS = new LongAdder();
+
+	@Override
+	public boolean isValid(Object value, ConstraintValidatorContext context) {
+		EVALUATIONS.increment();
+		return value == null || !value.toString().isEmpty();
+	}
+
+	/**
+	 * @return the number of evaluations of all leaf constraints so far
+	 */
+	public static long getEvaluations() {
+		return EVALUATIONS.sum();
+	}
+}
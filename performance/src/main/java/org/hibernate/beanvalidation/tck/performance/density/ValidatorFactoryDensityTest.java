@@ -0,0 +1,307 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.density;
+
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.validation.ClockProvider;
+import javax.validation.Configuration;
+import javax.validation.MessageInterpolator;
+import javax.validation.ValidationException;
+import javax.validation.ValidatorFactory;
+import javax.validation.metadata.BeanDescriptor;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.hibernate.beanvalidation.tck.performance.util.ClassPathScanner;
+import org.hibernate.beanvalidation.tck.performance.util.JvmMetrics;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Builds a large number of {@code ValidatorFactory} instances in one JVM, as done by multi-tenant applications using one
+ * factory per tenant. Each factory gets its own {@code MessageInterpolator} and {@code ClockProvider} and one of the
+ * constraint mappings of the {@code xmlconfiguration} tests of the TCK, assigned round-robin.
+ * <p>
+ * For each factory count the build time, the heap retained per factory and whether the bean metadata is shared
+ * between factories using the same mapping are reported.
+ * <p>
+ * The following system properties are supported:
+ * <ul>
+ * <li>{@code density.factories}: comma-separated list of factory counts to measure (default: 10,100,1000)</li>
+ * <li>{@code density.maxRetainedHeapPerFactory}: if set, the test fails if a factory retains more heap than this
+ * number of bytes</li>
+ * </ul>
+ */
+public class ValidatorFactoryDensityTest {
+
+	private static final Logger log = Logger.getLogger( ValidatorFactoryDensityTest.class.getName() );
+
+	private static final String MAPPINGS_PATH = "org/hibernate/beanvalidation/tck/tests/xmlconfiguration";
+	private static final String FACTORIES = System.getProperty( "density.factories", "10,100,1000" );
+	private static final long MAX_RETAINED_HEAP_PER_FACTORY = Long.getLong( "density.maxRetainedHeapPerFactory", -1L );
+
+	private List<Mapping> mappings;
+
+	@BeforeClass
+	public void loadMappings() throws Exception {
+		mappings = new ArrayList<>();
+
+		for ( String resourceName : ClassPathScanner.getResourceNames( MAPPINGS_PATH, ".xml" ) ) {
+			byte[] content = read( resourceName );
+			if ( !new String( content, StandardCharsets.UTF_8 ).contains( "<constraint-mappings" ) ) {
+				continue;
+			}
+
+			Mapping mapping = new Mapping( resourceName, content, getBeanClasses( content ) );
+
+			// many of the mappings are invalid on purpose, only keep those a factory can be built from
+			if ( mapping.beanClasses != null && isUsable( mapping ) ) {
+				mappings.add( mapping );
+			}
+		}
+
+		assertTrue( !mappings.isEmpty(), "No usable constraint mappings found" );
+		log.info( "Using " + mappings.size() + " constraint mappings" );
+	}
+
+	@DataProvider
+	public Object[][] factoryCounts() {
+		String[] counts = FACTORIES.split( "," );
+		Object[][] parameters = new Object[counts.length][];
+		for ( int i = 0; i < counts.length; i++ ) {
+			parameters[i] = new Object[] { Integer.valueOf( counts[i].trim() ) };
+		}
+		return parameters;
+	}
+
+	@Test(dataProvider = "factoryCounts")
+	public void testFactoryDensity(int factoryCount) {
+		List<ValidatorFactory> factories = new ArrayList<>( factoryCount );
+		List<Map<Class<?>, BeanDescriptor>> descriptors = new ArrayList<>( factoryCount );
+
+		long heapBefore = JvmMetrics.usedHeapAfterGc();
+		long start = System.nanoTime();
+
+		try {
+			for ( int tenant = 0; tenant < factoryCount; tenant++ ) {
+				Mapping mapping = mappings.get( tenant % mappings.size() );
+				ValidatorFactory factory = buildFactory( tenant, mapping );
+				factories.add( factory );
+				descriptors.add( getBeanDescriptors( factory, mapping ) );
+			}
+
+			long buildTime = System.nanoTime() - start;
+			long heapAfter = JvmMetrics.usedHeapAfterGc();
+			long retainedHeapPerFactory = ( heapAfter - heapBefore ) / factoryCount;
+
+			log.info( String.format(
+					"%d factories: build time %d ms (%d us per factory), retained heap %d KB (%d bytes per factory), bean metadata %s",
+					factoryCount,
+					TimeUnit.NANOSECONDS.toMillis( buildTime ),
+					TimeUnit.NANOSECONDS.toMicros( buildTime / factoryCount ),
+					( heapAfter - heapBefore ) / 1024,
+					retainedHeapPerFactory,
+					describeSharing( descriptors )
+			) );
+
+			if ( MAX_RETAINED_HEAP_PER_FACTORY >= 0 ) {
+				assertTrue(
+						retainedHeapPerFactory <= MAX_RETAINED_HEAP_PER_FACTORY,
+						"Each factory retains " + retainedHeapPerFactory + " bytes, budget is " + MAX_RETAINED_HEAP_PER_FACTORY
+				);
+			}
+		}
+		finally {
+			for ( ValidatorFactory factory : factories ) {
+				factory.close();
+			}
+		}
+	}
+
+	private static ValidatorFactory buildFactory(int tenant, Mapping mapping) {
+		Configuration<?> configuration = TestUtil.getConfigurationUnderTest();
+		return configuration.messageInterpolator( new TenantMessageInterpolator( tenant, configuration.getDefaultMessageInterpolator() ) )
+				.clockProvider( new TenantClockProvider( tenant ) )
+				.addMapping( new ByteArrayInputStream( mapping.content ) )
+				.buildValidatorFactory();
+	}
+
+	private static Map<Class<?>, BeanDescriptor> getBeanDescriptors(ValidatorFactory factory, Mapping mapping) {
+		Map<Class<?>, BeanDescriptor> descriptors = new IdentityHashMap<>();
+		for ( Class<?> beanClass : mapping.beanClasses ) {
+			descriptors.put( beanClass, factory.getValidator().getConstraintsForClass( beanClass ) );
+		}
+		return descriptors;
+	}
+
+	/**
+	 * Compares the bean descriptors of factories using the same mapping: if the provider shares metadata between
+	 * factories, the same descriptor instances are returned.
+	 */
+	private String describeSharing(List<Map<Class<?>, BeanDescriptor>> descriptors) {
+		int comparisons = 0;
+		int identical = 0;
+
+		for ( int i = mappings.size(); i < descriptors.size(); i++ ) {
+			Map<Class<?>, BeanDescriptor> first = descriptors.get( i % mappings.size() );
+			for ( Map.Entry<Class<?>, BeanDescriptor> descriptor : descriptors.get( i ).entrySet() ) {
+				comparisons++;
+				if ( first.get( descriptor.getKey() ) == descriptor.getValue() ) {
+					identical++;
+				}
+			}
+		}
+
+		if ( comparisons == 0 ) {
+			return "not compared (fewer factories than mappings)";
+		}
+
+		return identical == comparisons ? "shared"
+				: identical == 0 ? "duplicated"
+				: "shared for " + identical + " of " + comparisons + " bean classes";
+	}
+
+	private static boolean isUsable(Mapping mapping) {
+		ValidatorFactory factory;
+		try {
+			factory = buildFactory( 0, mapping );
+		}
+		catch ( ValidationException e ) {
+			return false;
+		}
+
+		try {
+			getBeanDescriptors( factory, mapping );
+			return true;
+		}
+		catch ( ValidationException e ) {
+			return false;
+		}
+		finally {
+			factory.close();
+		}
+	}
+
+	private static List<Class<?>> getBeanClasses(byte[] content) throws Exception {
+		Document document = DocumentBuilderFactory.newInstance()
+				.newDocumentBuilder()
+				.parse( new ByteArrayInputStream( content ) );
+
+		NodeList defaultPackages = document.getElementsByTagName( "default-package" );
+		String defaultPackage = defaultPackages.getLength() > 0 ? defaultPackages.item( 0 ).getTextContent().trim() : "";
+
+		List<Class<?>> beanClasses = new ArrayList<>();
+		NodeList beans = document.getElementsByTagName( "bean" );
+		for ( int i = 0; i < beans.getLength(); i++ ) {
+			String className = ( (Element) beans.item( i ) ).getAttribute( "class" ).trim();
+			if ( className.indexOf( '.' ) < 0 && !defaultPackage.isEmpty() ) {
+				className = defaultPackage + "." + className;
+			}
+
+			try {
+				beanClasses.add( Class.forName( className, false, ValidatorFactoryDensityTest.class.getClassLoader() ) );
+			}
+			catch ( ClassNotFoundException | LinkageError e ) {
+				return null;
+			}
+		}
+
+		return beanClasses;
+	}
+
+	private static byte[] read(String resourceName) throws IOException {
+		try ( InputStream in = ValidatorFactoryDensityTest.class.getClassLoader().getResourceAsStream( resourceName ) ) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int length;
+			while ( ( length = in.read( buffer ) ) != -1 ) {
+				out.write( buffer, 0, length );
+			}
+			return out.toByteArray();
+		}
+	}
+
+	private static class Mapping {
+
+		private final String resourceName;
+		private final byte[] content;
+		private final List<Class<?>> beanClasses;
+
+		private Mapping(String resourceName, byte[] content, List<Class<?>> beanClasses) {
+			this.resourceName = resourceName;
+			this.content = content;
+			this.beanClasses = beanClasses != null ? Collections.unmodifiableList( beanClasses ) : null;
+		}
+
+		@Override
+		public String toString() {
+			return resourceName;
+		}
+	}
+
+	/**
+	 * Prefixes the messages of the default interpolator with the tenant id.
+	 */
+	private static class TenantMessageInterpolator implements MessageInterpolator {
+
+		private final String prefix;
+		private final MessageInterpolator delegate;
+
+		private TenantMessageInterpolator(int tenant, MessageInterpolator delegate) {
+			this.prefix = "[tenant-" + tenant + "] ";
+			this.delegate = delegate;
+		}
+
+		@Override
+		public String interpolate(String messageTemplate, Context context) {
+			return prefix + delegate.interpolate( messageTemplate, context );
+		}
+
+		@Override
+		public String interpolate(String messageTemplate, Context context, Locale locale) {
+			return prefix + delegate.interpolate( messageTemplate, context, locale );
+		}
+	}
+
+	/**
+	 * Provides a clock offset by a tenant specific number of minutes.
+	 */
+	private static class TenantClockProvider implements ClockProvider {
+
+		private final Clock clock;
+
+		private TenantClockProvider(int tenant) {
+			this.clock = Clock.offset( Clock.systemDefaultZone(), Duration.ofMinutes( tenant % 720 ) );
+		}
+
+		@Override
+		public Clock getClock() {
+			return clock;
+		}
+	}
+}
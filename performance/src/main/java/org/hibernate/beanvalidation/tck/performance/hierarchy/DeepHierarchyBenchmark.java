@@ -0,0 +1,188 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.hierarchy;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.validation.executable.ExecutableValidator;
+import javax.validation.metadata.BeanDescriptor;
+
+import org.hibernate.beanvalidation.tck.performance.util.InMemoryCompiler;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the metadata build and the validation of a generated class hierarchy of {@code depth} levels, each class
+ * implementing {@code interfacesPerLevel} interfaces.
+ * <p>
+ * All interfaces extend a root interface declaring the method {@code execute()} with a parameter constraint. Each
+ * class declares a constrained field and implements the constrained getters of its interfaces. If {@code overriding}
+ * is set, every interface and class redeclares {@code execute()} without adding parameter constraints. This is legal,
+ * but requires the provider to check the parameter constraints of all overridden and parallel methods, so the
+ * difference to the hierarchy without overriding methods shows the cost of these checks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeepHierarchyBenchmark {
+
+	private static final String PACKAGE = "org.hibernate.beanvalidation.tck.performance.hierarchy.generated";
+
+	@Param({ "1", "10", "30" })
+	public int depth;
+
+	@Param({ "1", "5" })
+	public int interfacesPerLevel;
+
+	@Param({ "false", "true" })
+	public boolean overriding;
+
+	private Class<?> leafClass;
+	private Object leaf;
+	private Method execute;
+
+	private ValidatorFactory validatorFactory;
+	private Validator validator;
+	private ExecutableValidator executableValidator;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ClassLoader classLoader = InMemoryCompiler.compile( generateSources(), DeepHierarchyBenchmark.class.getClassLoader() );
+		leafClass = classLoader.loadClass( PACKAGE + ".Level" + depth );
+		leaf = leafClass.newInstance();
+		execute = leafClass.getMethod( "execute", String.class );
+
+		validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+		validator = validatorFactory.getValidator();
+		executableValidator = validator.forExecutables();
+
+		int violations = executableValidator.validateParameters( leaf, execute, new Object[] { null } ).size();
+		if ( violations != 1 ) {
+			throw new IllegalStateException( "Expected the inherited parameter constraint to be applied, but got " + violations + " violations" );
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		validatorFactory.close();
+	}
+
+	/**
+	 * Builds the metadata of the leaf class with a new factory, bootstrapped outside of the measured time.
+	 */
+	@Benchmark
+	public BeanDescriptor buildMetadata(ColdValidator cold) {
+		return cold.validator.getConstraintsForClass( leafClass );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> validate() {
+		return validator.validate( leaf );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> validateParameters() {
+		return executableValidator.validateParameters( leaf, execute, new Object[] { "argument" } );
+	}
+
+	private Map<String, String> generateSources() {
+		Map<String, String> sources = new LinkedHashMap<>();
+
+		sources.put(
+				PACKAGE + ".Root",
+				"package " + PACKAGE + ";\n"
+						+ "public interface Root {\n"
+						+ "	String execute(@javax.validation.constraints.NotNull String argument);\n"
+						+ "}\n"
+		);
+
+		for ( int level = 1; level <= depth; level++ ) {
+			StringBuilder implemented = new StringBuilder();
+			StringBuilder getters = new StringBuilder();
+
+			for ( int i = 1; i <= interfacesPerLevel; i++ ) {
+				String name = "Interface" + level + "_" + i;
+				String getter = "getName" + level + "_" + i + "()";
+				implemented.append( i == 1 ? " implements " : ", " ).append( name );
+				getters.append( "	public String " ).append( getter ).append( " {\n" )
+						.append( "		return \"name\";\n" )
+						.append( "	}\n" );
+
+				sources.put(
+						PACKAGE + "." + name,
+						"package " + PACKAGE + ";\n"
+								+ "public interface " + name + " extends Root {\n"
+								+ "	@javax.validation.constraints.NotNull\n"
+								+ "	String " + getter + ";\n"
+								+ ( overriding ? "	String execute(String argument);\n" : "" )
+								+ "}\n"
+				);
+			}
+
+			String name = "Level" + level;
+			sources.put(
+					PACKAGE + "." + name,
+					"package " + PACKAGE + ";\n"
+							+ "public class " + name + ( level > 1 ? " extends Level" + ( level - 1 ) : "" ) + implemented + " {\n"
+							+ "	@javax.validation.constraints.NotNull\n"
+							+ "	private String field" + level + " = \"value\";\n"
+							+ getters
+							+ ( overriding || level == 1
+									? "	public String execute(String argument) {\n"
+											+ "		return argument;\n"
+											+ "	}\n"
+									: "" )
+							+ "}\n"
+			);
+		}
+
+		return sources;
+	}
+
+	/**
+	 * A validator of a new factory for each invocation of {@link #buildMetadata(ColdValidator)}.
+	 */
+	@State(Scope.Thread)
+	public static class ColdValidator {
+
+		private ValidatorFactory validatorFactory;
+		private Validator validator;
+
+		@Setup(Level.Invocation)
+		public void setUp() {
+			validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+			validator = validatorFactory.getValidator();
+		}
+
+		@TearDown(Level.Invocation)
+		public void tearDown() {
+			validatorFactory.close();
+		}
+	}
+}
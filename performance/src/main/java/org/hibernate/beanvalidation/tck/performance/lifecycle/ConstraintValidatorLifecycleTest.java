@@ -0,0 +1,185 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.lifecycle;
+
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import javax.validation.Configuration;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import org.hibernate.beanvalidation.tck.performance.util.TckModels;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Counts how often constraint validators are retrieved from the {@code ConstraintValidatorFactory}, instantiated,
+ * initialized and released while validating the same beans over and over again, using
+ * <ul>
+ * <li>the same {@code Validator},</li>
+ * <li>a new {@code Validator} retrieved from the same factory for each call,</li>
+ * <li>a new {@code Validator} retrieved via {@code usingContext()} for each call, with and without re-setting the
+ * factory's own SPI implementations.</li>
+ * </ul>
+ * Any of these lifecycle operations still happening after the first call is reported as work repeated per call. Once
+ * the factory is closed, validators retrieved but not released are reported as well.
+ * <p>
+ * The instantiations and initializations are tracked for the {@link ExpensiveRule} constraint only, the calls to the
+ * {@code ConstraintValidatorFactory} for all constraints of the validated beans.
+ * <p>
+ * The following system properties are supported:
+ * <ul>
+ * <li>{@code lifecycle.calls}: the number of validation calls after the first one (default: 100)</li>
+ * <li>{@code lifecycle.includeTckModels}: whether to validate the TCK models in addition to a bean with
+ * {@code ExpensiveRule} constraints (default: true)</li>
+ * <li>{@code lifecycle.failOnRepeatedWork}: whether to fail if any work is repeated per call (default: false)</li>
+ * </ul>
+ */
+public class ConstraintValidatorLifecycleTest {
+
+	private static final Logger log = Logger.getLogger( ConstraintValidatorLifecycleTest.class.getName() );
+
+	private static final int CALLS = Integer.getInteger( "lifecycle.calls", 100 );
+	private static final boolean INCLUDE_TCK_MODELS = Boolean.parseBoolean( System.getProperty( "lifecycle.includeTckModels", "true" ) );
+	private static final boolean FAIL_ON_REPEATED_WORK = Boolean.getBoolean( "lifecycle.failOnRepeatedWork" );
+
+	private List<Object> beans;
+
+	@BeforeClass
+	public void createBeans() {
+		beans = new ArrayList<>();
+		beans.add( new Order( "ORD-1234", "EUR" ) );
+		beans.add( new Order( "invalid", "euro" ) );
+		if ( INCLUDE_TCK_MODELS ) {
+			beans.addAll( TckModels.getAllModels() );
+		}
+	}
+
+	@Test
+	public void testSameValidator() {
+		measure( "same validator", factory -> {
+			Validator validator = factory.getValidator();
+			return () -> validator;
+		} );
+	}
+
+	@Test
+	public void testValidatorPerCall() {
+		measure( "validator per call", factory -> factory::getValidator );
+	}
+
+	@Test
+	public void testUsingContextValidatorPerCall() {
+		measure( "usingContext() validator per call", factory -> () -> factory.usingContext().getValidator() );
+	}
+
+	@Test
+	public void testUsingContextWithFactorySpisValidatorPerCall() {
+		measure( "usingContext() validator with the factory's SPIs per call", factory -> () -> factory.usingContext()
+				.constraintValidatorFactory( factory.getConstraintValidatorFactory() )
+				.messageInterpolator( factory.getMessageInterpolator() )
+				.traversableResolver( factory.getTraversableResolver() )
+				.parameterNameProvider( factory.getParameterNameProvider() )
+				.clockProvider( factory.getClockProvider() )
+				.getValidator()
+		);
+	}
+
+	private void measure(String scenario, Function<ValidatorFactory, Supplier<Validator>> validatorSources) {
+		LifecycleCounters.Snapshot beforeFactory = LifecycleCounters.snapshot();
+
+		Configuration<?> configuration = TestUtil.getConfigurationUnderTest();
+		configuration.constraintValidatorFactory(
+				new LifecycleTrackingConstraintValidatorFactory( configuration.getDefaultConstraintValidatorFactory() )
+		);
+		ValidatorFactory factory = configuration.buildValidatorFactory();
+
+		LifecycleCounters.Snapshot firstCall;
+		LifecycleCounters.Snapshot followingCalls;
+		try {
+			Supplier<Validator> validators = validatorSources.apply( factory );
+
+			LifecycleCounters.Snapshot start = LifecycleCounters.snapshot();
+			validate( validators.get() );
+			LifecycleCounters.Snapshot afterFirstCall = LifecycleCounters.snapshot();
+			for ( int i = 0; i < CALLS; i++ ) {
+				validate( validators.get() );
+			}
+
+			firstCall = afterFirstCall.minus( start );
+			followingCalls = LifecycleCounters.snapshot().minus( afterFirstCall );
+		}
+		finally {
+			factory.close();
+		}
+
+		LifecycleCounters.Snapshot factoryLifetime = LifecycleCounters.snapshot().minus( beforeFactory );
+
+		List<String> findings = new ArrayList<>();
+		checkRepeated( "ConstraintValidatorFactory.getInstance()", followingCalls.getGetInstanceCalls(), findings );
+		checkRepeated( "ExpensiveRuleValidator instantiation", followingCalls.getInstantiations(), findings );
+		checkRepeated( "ExpensiveRuleValidator.initialize()", followingCalls.getInitializations(), findings );
+		long notReleased = factoryLifetime.getGetInstanceCalls() - factoryLifetime.getReleaseInstanceCalls();
+		if ( notReleased > 0 ) {
+			findings.add( notReleased + " validators not released after closing the factory" );
+		}
+
+		log.info( String.format(
+				"%s:%n  %-20s %s%n  %-20s %s%n  %-20s %s%n  %-20s %s",
+				scenario,
+				"first call:",
+				firstCall,
+				"following " + CALLS + " calls:",
+				followingCalls,
+				"factory lifetime:",
+				factoryLifetime,
+				"findings:",
+				findings.isEmpty() ? "none" : findings
+		) );
+
+		if ( FAIL_ON_REPEATED_WORK ) {
+			assertTrue( findings.isEmpty(), scenario + ": " + findings );
+		}
+	}
+
+	private static void checkRepeated(String operation, long count, List<String> findings) {
+		if ( count > 0 ) {
+			findings.add( String.format( "%s repeated %.2f times per call", operation, (double) count / CALLS ) );
+		}
+	}
+
+	private void validate(Validator validator) {
+		for ( Object bean : beans ) {
+			validator.validate( bean );
+		}
+	}
+
+	private static class Order {
+
+		@NotNull
+		@ExpensiveRule("[A-Z]{3}-[0-9]{4}")
+		private final String number;
+
+		@Size(min = 3, max = 3)
+		@ExpensiveRule("[A-Z]{3}")
+		private final String currency;
+
+		private Order(String number, String currency) {
+			this.number = number;
+			this.currency = currency;
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.lifecycle;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+/**
+ * A constraint whose validator compiles a rule on initialization, standing in for validators with an expensive
+ * {@code initialize()} method.
+ */
+@Documented
+@Constraint(validatedBy = ExpensiveRuleValidator.class)
+@Target({ METHOD, FIELD })
+@Retention(RUNTIME)
+public @interface ExpensiveRule {
+
+	String message() default "does not match the rule";
+
+	Class<?>[] groups() default { };
+
+	Class<? extends Payload>[] payload() default { };
+
+	/**
+	 * @return the regular expression the value has to match
+	 */
+	String value();
+}
@@ -0,0 +1,37 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.lifecycle;
+
+import java.util.regex.Pattern;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Compiles the rule of the {@link ExpensiveRule} constraint on initialization and records its lifecycle in the
+ * {@link LifecycleCounters}.
+ */
+public class ExpensiveRuleValidator implements ConstraintValidator<ExpensiveRule, CharSequence> {
+
+	private Pattern rule;
+
+	public ExpensiveRuleValidator() {
+		LifecycleCounters.INSTANTIATIONS.increment();
+	}
+
+	@Override
+	public void initialize(ExpensiveRule constraintAnnotation) {
+		LifecycleCounters.INITIALIZATIONS.increment();
+		rule = Pattern.compile( constraintAnnotation.value() );
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+		LifecycleCounters.IS_VALID_CALLS.increment();
+		return value == null || rule.matcher( value ).matches();
+	}
+}
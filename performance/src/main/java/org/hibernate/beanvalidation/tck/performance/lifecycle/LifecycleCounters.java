@@ -0,0 +1,97 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.lifecycle;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the lifecycle events of constraint validators: their retrieval from and release to the
+ * {@code ConstraintValidatorFactory}, which applies to all validators, and their instantiation, initialization and
+ * invocation, which is only tracked for the {@link ExpensiveRuleValidator}.
+ */
+public final class LifecycleCounters {
+
+	static final LongAdder GET_INSTANCE_CALLS = new LongAdder();
+	static final LongAdder RELEASE_INSTANCE_CALLS = new LongAdder();
+	static final LongAdder INSTANTIATIONS = new LongAdder();
+	static final LongAdder INITIALIZATIONS = new LongAdder();
+	static final LongAdder IS_VALID_CALLS = new LongAdder();
+
+	private LifecycleCounters() {
+	}
+
+	public static Snapshot snapshot() {
+		return new Snapshot(
+				GET_INSTANCE_CALLS.sum(),
+				RELEASE_INSTANCE_CALLS.sum(),
+				INSTANTIATIONS.sum(),
+				INITIALIZATIONS.sum(),
+				IS_VALID_CALLS.sum()
+		);
+	}
+
+	/**
+	 * The values of the counters at a given point in time.
+	 */
+	public static class Snapshot {
+
+		private final long getInstanceCalls;
+		private final long releaseInstanceCalls;
+		private final long instantiations;
+		private final long initializations;
+		private final long isValidCalls;
+
+		private Snapshot(long getInstanceCalls, long releaseInstanceCalls, long instantiations, long initializations, long isValidCalls) {
+			this.getInstanceCalls = getInstanceCalls;
+			this.releaseInstanceCalls = releaseInstanceCalls;
+			this.instantiations = instantiations;
+			this.initializations = initializations;
+			this.isValidCalls = isValidCalls;
+		}
+
+		/**
+		 * @param earlier a snapshot taken before this one
+		 *
+		 * @return the increase of each counter since the given snapshot
+		 */
+		public Snapshot minus(Snapshot earlier) {
+			return new Snapshot(
+					getInstanceCalls - earlier.getInstanceCalls,
+					releaseInstanceCalls - earlier.releaseInstanceCalls,
+					instantiations - earlier.instantiations,
+					initializations - earlier.initializations,
+					isValidCalls - earlier.isValidCalls
+			);
+		}
+
+		public long getGetInstanceCalls() {
+			return getInstanceCalls;
+		}
+
+		public long getReleaseInstanceCalls() {
+			return releaseInstanceCalls;
+		}
+
+		public long getInstantiations() {
+			return instantiations;
+		}
+
+		public long getInitializations() {
+			return initializations;
+		}
+
+		public long getIsValidCalls() {
+			return isValidCalls;
+		}
+
+		@Override
+		public String toString() {
+			return "getInstance=" + getInstanceCalls + ", releaseInstance=" + releaseInstanceCalls + ", instantiations="
+					+ instantiations + ", initialize=" + initializations + ", isValid=" + isValidCalls;
+		}
+	}
+}
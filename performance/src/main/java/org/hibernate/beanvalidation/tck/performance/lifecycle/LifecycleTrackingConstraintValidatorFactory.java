@@ -0,0 +1,34 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.lifecycle;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorFactory;
+
+/**
+ * Records the calls of a {@code ConstraintValidatorFactory} in the {@link LifecycleCounters}.
+ */
+class LifecycleTrackingConstraintValidatorFactory implements ConstraintValidatorFactory {
+
+	private final ConstraintValidatorFactory delegate;
+
+	LifecycleTrackingConstraintValidatorFactory(ConstraintValidatorFactory delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public <T extends ConstraintValidator<?, ?>> T getInstance(Class<T> key) {
+		LifecycleCounters.GET_INSTANCE_CALLS.increment();
+		return delegate.getInstance( key );
+	}
+
+	@Override
+	public void releaseInstance(ConstraintValidator<?, ?> instance) {
+		LifecycleCounters.RELEASE_INSTANCE_CALLS.increment();
+		delegate.releaseInstance( instance );
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.load;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Records the latencies of validation requests per model class in HDR histograms, with a resolution of three
+ * significant digits.
+ * <p>
+ * The response time of a request is measured from its intended start time, i.e. the time it was scheduled for by the
+ * arrival rate, to its completion. It thus includes the time the request waited for a thread, which avoids the
+ * coordinated omission of latency measurements taken by the requesting thread itself. The service time is measured
+ * from the actual start of the validation.
+ */
+public class LatencyReport {
+
+	private final ConcurrentMap<String, Latencies> latenciesByModel = new ConcurrentHashMap<>();
+	private final Latencies total = new Latencies( "all models" );
+
+	/**
+	 * Records a completed request. Thread-safe.
+	 *
+	 * @param model the name of the validated model
+	 * @param intendedStartNanos the time the request was scheduled for
+	 * @param startNanos the time the validation started
+	 * @param endNanos the time the validation completed
+	 */
+	public void record(String model, long intendedStartNanos, long startNanos, long endNanos) {
+		Latencies latencies = latenciesByModel.get( model );
+		if ( latencies == null ) {
+			latencies = latenciesByModel.computeIfAbsent( model, Latencies::new );
+		}
+
+		latencies.record( endNanos - intendedStartNanos, endNanos - startNanos );
+		total.record( endNanos - intendedStartNanos, endNanos - startNanos );
+	}
+
+	/**
+	 * Records a request which did not complete by the end of the run. Its response time is recorded as the time
+	 * elapsed since its intended start, a lower bound of the actual one; its service time is unknown and not recorded.
+	 * Thread-safe.
+	 *
+	 * @param model the name of the validated model
+	 * @param intendedStartNanos the time the request was scheduled for
+	 * @param nowNanos the time the run ended
+	 */
+	public void recordUnfinished(String model, long intendedStartNanos, long nowNanos) {
+		Latencies latencies = latenciesByModel.get( model );
+		if ( latencies == null ) {
+			latencies = latenciesByModel.computeIfAbsent( model, Latencies::new );
+		}
+
+		latencies.responseTimes.recordValue( nowNanos - intendedStartNanos );
+		total.responseTimes.recordValue( nowNanos - intendedStartNanos );
+	}
+
+	/**
+	 * @return the response times of all requests in nanoseconds
+	 */
+	public Histogram getTotalResponseTimes() {
+		return total.responseTimes;
+	}
+
+	/**
+	 * @param limit the maximum number of models to return
+	 *
+	 * @return the models with the highest 99th response time percentile, descending
+	 */
+	public List<Latencies> getSlowestModels(int limit) {
+		List<Latencies> models = new ArrayList<>( latenciesByModel.values() );
+		models.sort( Comparator.comparingLong( (Latencies latencies) -> latencies.responseTimes.getValueAtPercentile( 99.0 ) ).reversed() );
+		return models.subList( 0, Math.min( limit, models.size() ) );
+	}
+
+	/**
+	 * Formats the percentiles of all requests and of the slowest models in microseconds.
+	 *
+	 * @param limit the maximum number of models to list
+	 *
+	 * @return the formatted report
+	 */
+	public String format(int limit) {
+		StringBuilder sb = new StringBuilder();
+		sb.append( String.format(
+				"%10s %10s %10s %10s %10s %14s  %s%n",
+				"requests", "p50 (us)", "p99 (us)", "p99.9 (us)", "max (us)", "p99 svc (us)", "model"
+		) );
+		total.format( sb );
+		for ( Latencies latencies : getSlowestModels( limit ) ) {
+			latencies.format( sb );
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * The response and service times of the requests validating one model.
+	 */
+	public static class Latencies {
+
+		private final String model;
+		private final Histogram responseTimes = new ConcurrentHistogram( 3 );
+		private final Histogram serviceTimes = new ConcurrentHistogram( 3 );
+
+		private Latencies(String model) {
+			this.model = model;
+		}
+
+		private void record(long responseTimeNanos, long serviceTimeNanos) {
+			responseTimes.recordValue( responseTimeNanos );
+			serviceTimes.recordValue( serviceTimeNanos );
+		}
+
+		public String getModel() {
+			return model;
+		}
+
+		public Histogram getResponseTimes() {
+			return responseTimes;
+		}
+
+		public Histogram getServiceTimes() {
+			return serviceTimes;
+		}
+
+		private void format(StringBuilder sb) {
+			sb.append( String.format(
+					"%10d %10.1f %10.1f %10.1f %10.1f %14.1f  %s%n",
+					responseTimes.getTotalCount(),
+					responseTimes.getValueAtPercentile( 50.0 ) / 1000.0,
+					responseTimes.getValueAtPercentile( 99.0 ) / 1000.0,
+					responseTimes.getValueAtPercentile( 99.9 ) / 1000.0,
+					responseTimes.getMaxValue() / 1000.0,
+					serviceTimes.getValueAtPercentile( 99.0 ) / 1000.0,
+					model
+			) );
+		}
+	}
+}
@@ -0,0 +1,271 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.load;
+
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import org.hibernate.beanvalidation.tck.performance.util.TckModels;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Validates the TCK models in an open loop, i.e. at a fixed arrival rate independent of the completion of earlier
+ * validations, as requests of independent clients arrive at a service. The models are validated round-robin on a pool
+ * of platform threads or on virtual threads.
+ * <p>
+ * Unlike closed-loop benchmarks, this shows how queueing amplifies slow validations at a given load. The response time
+ * percentiles of all requests and of the slowest models are reported, see {@link LatencyReport}. The percentiles of
+ * single models are based on the share of the requests validating them, so the higher percentiles require accordingly
+ * long runs.
+ * <p>
+ * The following system properties are supported:
+ * <ul>
+ * <li>{@code load.rate}: the number of validations started per second (default: 10000)</li>
+ * <li>{@code load.warmup}: the duration of the warm-up in seconds, whose requests are not recorded (default: 10)</li>
+ * <li>{@code load.duration}: the duration of the measurement in seconds (default: 30)</li>
+ * <li>{@code load.threads}: the number of platform threads validating the models (default: the number of
+ * processors)</li>
+ * <li>{@code load.virtualThreads}: whether to validate each model on a new virtual thread instead; requires Java 21,
+ * the test fails on older JVMs (default: false)</li>
+ * <li>{@code load.models}: a regular expression the class names of the validated models must match (default: all
+ * models)</li>
+ * <li>{@code load.topModels}: the number of models listed in the report (default: 20)</li>
+ * <li>{@code load.histogram}: the file the percentile distribution of all requests is written to, in the format of
+ * {@code HdrHistogram} and in microseconds (default: target/load-latency.hgrm)</li>
+ * <li>{@code load.maxP99}: if set, the test fails if the 99th response time percentile of all requests exceeds this
+ * number of microseconds</li>
+ * <li>{@code load.maxP999}: the same for the 99.9th percentile</li>
+ * </ul>
+ */
+public class OpenLoopLoadTest {
+
+	private static final Logger log = Logger.getLogger( OpenLoopLoadTest.class.getName() );
+
+	private static final int RATE = Integer.getInteger( "load.rate", 10_000 );
+	private static final int WARMUP = Integer.getInteger( "load.warmup", 10 );
+	private static final int DURATION = Integer.getInteger( "load.duration", 30 );
+	private static final int THREADS = Integer.getInteger( "load.threads", Runtime.getRuntime().availableProcessors() );
+	private static final boolean VIRTUAL_THREADS = Boolean.getBoolean( "load.virtualThreads" );
+	private static final Pattern MODELS = Pattern.compile( System.getProperty( "load.models", ".*" ) );
+	private static final int TOP_MODELS = Integer.getInteger( "load.topModels", 20 );
+	private static final String HISTOGRAM = System.getProperty( "load.histogram", "target/load-latency.hgrm" );
+	private static final long MAX_P99 = Long.getLong( "load.maxP99", -1L );
+	private static final long MAX_P999 = Long.getLong( "load.maxP999", -1L );
+
+	@Test
+	public void testValidationAtFixedArrivalRate() throws Exception {
+		List<Object> models = new ArrayList<>();
+		for ( Object model : TckModels.getAllModels() ) {
+			if ( MODELS.matcher( model.getClass().getName() ).matches() ) {
+				models.add( model );
+			}
+		}
+		assertTrue( !models.isEmpty(), "No TCK models matching " + MODELS + " found" );
+
+		ExecutorService executor;
+		if ( VIRTUAL_THREADS ) {
+			executor = newVirtualThreadPerTaskExecutor();
+			assertNotNull(
+					executor,
+					"Virtual threads are requested but not supported by the JVM " + System.getProperty( "java.version" )
+			);
+		}
+		else {
+			executor = Executors.newFixedThreadPool( THREADS );
+		}
+
+		ValidatorFactory validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+		LatencyReport report = new LatencyReport();
+		Set<ValidationRequest> pendingRequests = ConcurrentHashMap.newKeySet();
+		AtomicReference<RuntimeException> failure = new AtomicReference<>();
+		long maxDispatchLag;
+		try {
+			maxDispatchLag = dispatch( executor, validatorFactory.getValidator(), models, report, pendingRequests, failure );
+		}
+		finally {
+			executor.shutdown();
+			if ( !executor.awaitTermination( 1, TimeUnit.MINUTES ) ) {
+				executor.shutdownNow();
+			}
+			validatorFactory.close();
+		}
+
+		if ( failure.get() != null ) {
+			throw new AssertionError( "The validation of a model failed", failure.get() );
+		}
+
+		// requests still queued or running would otherwise be missing from the slowest percentiles
+		long now = System.nanoTime();
+		int unfinishedRequests = 0;
+		for ( ValidationRequest request : pendingRequests ) {
+			if ( request.recordUnfinished( now ) ) {
+				unfinishedRequests++;
+			}
+		}
+		if ( unfinishedRequests > 0 ) {
+			log.warning( unfinishedRequests + " requests did not complete within one minute after the end of the run;"
+					+ " their response time is recorded as the time elapsed since their intended start" );
+		}
+
+		log.info( String.format(
+				"%d validations per second of %d models for %d s, maximum dispatch lag %.1f ms:%n%s",
+				RATE,
+				models.size(),
+				DURATION,
+				maxDispatchLag / 1_000_000.0,
+				report.format( TOP_MODELS )
+		) );
+
+		Path histogramFile = Paths.get( HISTOGRAM ).toAbsolutePath();
+		Files.createDirectories( histogramFile.getParent() );
+		try ( PrintStream out = new PrintStream( Files.newOutputStream( histogramFile ), false, "UTF-8" ) ) {
+			report.getTotalResponseTimes().outputPercentileDistribution( out, 1000.0 );
+		}
+		log.info( "Percentile distribution written to " + histogramFile );
+
+		assertPercentile( report, 99.0, MAX_P99 );
+		assertPercentile( report, 99.9, MAX_P999 );
+	}
+
+	/**
+	 * Submits the validations at the configured rate. Each request is scheduled for a fixed start time; if the
+	 * dispatching thread falls behind, the overdue requests are submitted at once and their response time is still
+	 * measured from their scheduled start time. The recorded requests are kept in the given set until they complete.
+	 * The first exception raised by a validation is kept in the given reference.
+	 *
+	 * @return the maximum delay between the scheduled start time and the submission of a request in nanoseconds
+	 */
+	private static long dispatch(ExecutorService executor, Validator validator, List<Object> models, LatencyReport report,
+			Set<ValidationRequest> pendingRequests, AtomicReference<RuntimeException> failure) {
+		long intervalNanos = TimeUnit.SECONDS.toNanos( 1 ) / RATE;
+		long requests = (long) RATE * ( WARMUP + DURATION );
+		long start = System.nanoTime();
+		long measurementStart = start + TimeUnit.SECONDS.toNanos( WARMUP );
+		long maxDispatchLag = 0;
+
+		for ( long i = 0; i < requests; i++ ) {
+			long intendedStart = start + i * intervalNanos;
+			long now = System.nanoTime();
+			while ( now < intendedStart ) {
+				LockSupport.parkNanos( intendedStart - now );
+				now = System.nanoTime();
+			}
+
+			Object model = models.get( (int) ( i % models.size() ) );
+			ValidationRequest request;
+			if ( intendedStart >= measurementStart ) {
+				maxDispatchLag = Math.max( maxDispatchLag, now - intendedStart );
+				request = new ValidationRequest( validator, model, intendedStart, report, pendingRequests, failure );
+				pendingRequests.add( request );
+			}
+			else {
+				request = new ValidationRequest( validator, model, intendedStart, null, null, failure );
+			}
+			executor.execute( request );
+		}
+
+		return maxDispatchLag;
+	}
+
+	private static void assertPercentile(LatencyReport report, double percentile, long maxMicros) {
+		if ( maxMicros < 0 ) {
+			return;
+		}
+
+		long actualMicros = TimeUnit.NANOSECONDS.toMicros( report.getTotalResponseTimes().getValueAtPercentile( percentile ) );
+		assertTrue(
+				actualMicros <= maxMicros,
+				"The " + percentile + "th response time percentile is " + actualMicros + " us, budget is " + maxMicros + " us"
+		);
+	}
+
+	/**
+	 * Creates an executor starting a new virtual thread per task. The executor is retrieved reflectively as the TCK is
+	 * compiled for Java 8.
+	 *
+	 * @return the executor or {@code null} if virtual threads are not supported by this JVM
+	 */
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+		}
+		catch ( ReflectiveOperationException e ) {
+			return null;
+		}
+	}
+
+	/**
+	 * The validation of one model, recorded if a report is given.
+	 */
+	private static class ValidationRequest implements Runnable {
+
+		private final Validator validator;
+		private final Object model;
+		private final long intendedStart;
+		private final LatencyReport report;
+		private final Set<ValidationRequest> pendingRequests;
+		private final AtomicReference<RuntimeException> failure;
+
+		private ValidationRequest(Validator validator, Object model, long intendedStart, LatencyReport report,
+				Set<ValidationRequest> pendingRequests, AtomicReference<RuntimeException> failure) {
+			this.validator = validator;
+			this.model = model;
+			this.intendedStart = intendedStart;
+			this.report = report;
+			this.pendingRequests = pendingRequests;
+			this.failure = failure;
+		}
+
+		@Override
+		public void run() {
+			long validationStart = System.nanoTime();
+			try {
+				validator.validate( model );
+			}
+			catch ( RuntimeException e ) {
+				// the models have been checked before, so this fails the test
+				failure.compareAndSet( null, e );
+				throw e;
+			}
+			// removing the request first ensures it is recorded once, also if it completes after the end of the run
+			if ( report != null && pendingRequests.remove( this ) ) {
+				report.record( model.getClass().getName(), intendedStart, validationStart, System.nanoTime() );
+			}
+		}
+
+		/**
+		 * @return {@code true} if the request had not completed yet and has been recorded as unfinished
+		 */
+		private boolean recordUnfinished(long now) {
+			if ( !pendingRequests.remove( this ) ) {
+				return false;
+			}
+			report.recordUnfinished( model.getClass().getName(), intendedStart, now );
+			return true;
+		}
+	}
+}
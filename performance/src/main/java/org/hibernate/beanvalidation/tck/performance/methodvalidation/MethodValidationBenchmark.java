@@ -0,0 +1,185 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.methodvalidation;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ValidatorFactory;
+import javax.validation.executable.ExecutableValidator;
+import javax.validation.metadata.ConstructorDescriptor;
+import javax.validation.metadata.MethodDescriptor;
+
+import org.hibernate.beanvalidation.tck.tests.methodvalidation.model.Customer;
+import org.hibernate.beanvalidation.tck.tests.methodvalidation.model.Item;
+import org.hibernate.beanvalidation.tck.tests.methodvalidation.model.OrderLine;
+import org.hibernate.beanvalidation.tck.tests.methodvalidation.model.User;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks method and constructor validation using the models of the {@code methodvalidation} tests.
+ * <p>
+ * The {@code resolve*} benchmarks measure the cost of obtaining the {@code Method} or {@code Constructor} via
+ * reflection and of retrieving its descriptor from the provider, the {@code validate*} benchmarks the cost of the
+ * validation alone, using executables resolved once during the setup. {@link #resolveAndValidateParameters()} combines
+ * both, as done by callers resolving the executable for each invocation.
+ * <p>
+ * The cross-parameter constraint of {@code User} always fails, so the cross-parameter benchmarks always report a
+ * violation; the cascaded benchmarks validate a valid and an invalid {@code Item}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodValidationBenchmark {
+
+	private ValidatorFactory validatorFactory;
+	private ExecutableValidator executableValidator;
+
+	private User user;
+	private Customer customer;
+	private OrderLine orderLine;
+	private Item validItem;
+	private Item invalidItem;
+
+	private Method setNames;
+	private Method setAddress;
+	private Method setItem;
+	private Method getFirstName;
+	private Method getItem;
+	private Constructor<User> userConstructor;
+	private Constructor<User> userCrossParameterConstructor;
+	private Constructor<OrderLine> orderLineConstructor;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+		executableValidator = validatorFactory.getValidator().forExecutables();
+
+		user = new User();
+		customer = new Customer();
+		validItem = new Item( "valid item" );
+		invalidItem = new Item( "x" );
+		orderLine = new OrderLine( validItem );
+
+		setNames = User.class.getMethod( "setNames", String.class, CharSequence.class );
+		setAddress = User.class.getMethod( "setAddress", String.class, String.class );
+		setItem = OrderLine.class.getMethod( "setItem", Item.class );
+		getFirstName = Customer.class.getMethod( "getFirstName", String.class );
+		getItem = OrderLine.class.getMethod( "getItem" );
+		userConstructor = User.class.getConstructor( String.class, CharSequence.class );
+		userCrossParameterConstructor = User.class.getConstructor( String.class, String.class );
+		orderLineConstructor = OrderLine.class.getConstructor( Item.class );
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		validatorFactory.close();
+	}
+
+	@Benchmark
+	public Method resolveMethod() throws NoSuchMethodException {
+		return User.class.getMethod( "setNames", String.class, CharSequence.class );
+	}
+
+	@Benchmark
+	public MethodDescriptor resolveMethodDescriptor() {
+		return validatorFactory.getValidator()
+				.getConstraintsForClass( User.class )
+				.getConstraintsForMethod( "setNames", String.class, CharSequence.class );
+	}
+
+	@Benchmark
+	public ConstructorDescriptor resolveConstructorDescriptor() {
+		return validatorFactory.getValidator()
+				.getConstraintsForClass( User.class )
+				.getConstraintsForConstructor( String.class, CharSequence.class );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<User>> resolveAndValidateParameters() throws NoSuchMethodException {
+		Method method = User.class.getMethod( "setNames", String.class, CharSequence.class );
+		return executableValidator.validateParameters( user, method, new Object[] { "Bob", "Smith" } );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<User>> validateValidParameters() {
+		return executableValidator.validateParameters( user, setNames, new Object[] { "Bob", "Smith" } );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<User>> validateInvalidParameters() {
+		return executableValidator.validateParameters( user, setNames, new Object[] { null, "S" } );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<User>> validateCrossParameters() {
+		return executableValidator.validateParameters( user, setAddress, new Object[] { "Main Street", "1" } );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<OrderLine>> validateValidCascadedParameter() {
+		return executableValidator.validateParameters( orderLine, setItem, new Object[] { validItem } );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<OrderLine>> validateInvalidCascadedParameter() {
+		return executableValidator.validateParameters( orderLine, setItem, new Object[] { invalidItem } );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Customer>> validateValidReturnValue() {
+		return executableValidator.validateReturnValue( customer, getFirstName, "aaa" );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Customer>> validateInvalidReturnValue() {
+		return executableValidator.validateReturnValue( customer, getFirstName, "a" );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<OrderLine>> validateInvalidCascadedReturnValue() {
+		return executableValidator.validateReturnValue( orderLine, getItem, invalidItem );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<User>> validateValidConstructorParameters() {
+		return executableValidator.validateConstructorParameters( userConstructor, new Object[] { "Bob", "Smith" } );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<User>> validateInvalidConstructorParameters() {
+		return executableValidator.validateConstructorParameters( userConstructor, new Object[] { null, "S" } );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<User>> validateCrossConstructorParameters() {
+		return executableValidator.validateConstructorParameters( userCrossParameterConstructor, new Object[] { "Main Street", "1" } );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<OrderLine>> validateInvalidCascadedConstructorParameter() {
+		return executableValidator.validateConstructorParameters( orderLineConstructor, new Object[] { invalidItem } );
+	}
+}
@@ -0,0 +1,123 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.reactive;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import org.hibernate.beanvalidation.tck.performance.util.TckModels;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Validates a stream of TCK model instances, published as a Reactive Streams {@code Publisher}, with bounded
+ * concurrency and backpressure, as done by pipelines validating batches of incoming records.
+ * <p>
+ * For each concurrency level the throughput, the mean and maximum number of items in flight and the number of
+ * violations are reported. The test fails if more items than the concurrency level were in flight at any time or if
+ * the result of any concurrent validation differs from the result of validating the same instance sequentially. Some
+ * models yield different results on repeated sequential validations, e.g. due to constraint validators with static
+ * state; these are not compared.
+ * <p>
+ * The following system properties are supported:
+ * <ul>
+ * <li>{@code reactive.items}: the number of items to publish per concurrency level (default: 100000)</li>
+ * <li>{@code reactive.concurrency}: comma-separated list of concurrency levels, i.e. the maximum numbers of items
+ * requested but not yet validated (default: 1,4,16,64)</li>
+ * <li>{@code reactive.threads}: the number of threads validating the items (default: the number of processors)</li>
+ * <li>{@code reactive.timeout}: the time in seconds to wait for the validation of all items of one concurrency level
+ * (default: 600)</li>
+ * </ul>
+ */
+public class BackpressuredValidationTest {
+
+	private static final Logger log = Logger.getLogger( BackpressuredValidationTest.class.getName() );
+
+	private static final long ITEMS = Long.getLong( "reactive.items", 100_000L );
+	private static final String CONCURRENCY = System.getProperty( "reactive.concurrency", "1,4,16,64" );
+	private static final int THREADS = Integer.getInteger( "reactive.threads", Runtime.getRuntime().availableProcessors() );
+	private static final long TIMEOUT = Long.getLong( "reactive.timeout", 600L );
+
+	@Test
+	public void testBackpressuredValidation() throws Exception {
+		List<Object> models = TckModels.getAllModels();
+		assertTrue( !models.isEmpty(), "No TCK models found" );
+
+		ValidatorFactory validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+		ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+		try {
+			Validator validator = validatorFactory.getValidator();
+
+			Map<Object, Set<String>> expectedResults = new IdentityHashMap<>();
+			Set<Object> unstableModels = Collections.newSetFromMap( new IdentityHashMap<>() );
+			long start = System.nanoTime();
+			for ( long i = 0; i < ITEMS; i++ ) {
+				Object model = models.get( (int) ( i % models.size() ) );
+				Set<String> result = ValidatingSubscriber.getResult( validator, model );
+				Set<String> previousResult = expectedResults.putIfAbsent( model, result );
+				if ( previousResult != null && !previousResult.equals( result ) ) {
+					unstableModels.add( model );
+				}
+			}
+			log.info( String.format(
+					"Sequential: %,.0f items/s, %d of %d models with differing results on repeated validations",
+					ITEMS / ( ( System.nanoTime() - start ) / 1_000_000_000.0 ),
+					unstableModels.size(),
+					models.size()
+			) );
+			expectedResults.keySet().removeAll( unstableModels );
+
+			for ( String concurrency : CONCURRENCY.split( "," ) ) {
+				int maxConcurrency = Integer.parseInt( concurrency.trim() );
+				ValidatingSubscriber subscriber = new ValidatingSubscriber( validator, executor, maxConcurrency, expectedResults );
+
+				start = System.nanoTime();
+				new ModelPublisher( models, ITEMS ).subscribe( subscriber );
+				subscriber.await( TIMEOUT, TimeUnit.SECONDS );
+				long duration = System.nanoTime() - start;
+
+				log.info( String.format(
+						"Concurrency %d on %d threads: %,.0f items/s, %.1f items in flight on average, %d at most, %d violations",
+						maxConcurrency,
+						THREADS,
+						ITEMS / ( duration / 1_000_000_000.0 ),
+						subscriber.getMeanInFlight(),
+						subscriber.getMaxInFlight(),
+						subscriber.getViolations()
+				) );
+
+				assertEquals( subscriber.getValidated(), ITEMS, "Unexpected number of validated items" );
+				assertTrue(
+						subscriber.getMaxInFlight() <= maxConcurrency,
+						subscriber.getMaxInFlight() + " items in flight, but at most " + maxConcurrency + " were requested"
+				);
+				assertEquals(
+						subscriber.getMismatches(),
+						0L,
+						"Results differing from the sequential validation, e.g. " + subscriber.getFirstMismatch()
+				);
+			}
+		}
+		finally {
+			executor.shutdown();
+			validatorFactory.close();
+		}
+	}
+}
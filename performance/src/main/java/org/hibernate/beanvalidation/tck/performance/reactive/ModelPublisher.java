@@ -0,0 +1,89 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.reactive;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Publishes a given number of items, taken round-robin from a list of models, honoring the demand signalled by the
+ * subscriber. Items are emitted on the thread requesting them; concurrent requests are serialized, so the subscriber
+ * never receives concurrent {@code onNext()} calls.
+ */
+public class ModelPublisher implements Publisher<Object> {
+
+	private final List<Object> models;
+	private final long count;
+
+	public ModelPublisher(List<Object> models, long count) {
+		this.models = models;
+		this.count = count;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super Object> subscriber) {
+		subscriber.onSubscribe( new ModelSubscription( subscriber ) );
+	}
+
+	private class ModelSubscription implements Subscription {
+
+		private final Subscriber<? super Object> subscriber;
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger drainRequests = new AtomicInteger();
+		private long emitted;
+		private volatile boolean done;
+
+		private ModelSubscription(Subscriber<? super Object> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if ( n <= 0 ) {
+				cancel();
+				subscriber.onError( new IllegalArgumentException( "The number of requested items must be positive, but is " + n ) );
+				return;
+			}
+
+			requested.getAndUpdate( current -> current + n < 0 ? Long.MAX_VALUE : current + n );
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			done = true;
+		}
+
+		/**
+		 * Emits the requested items. Only one thread emits at a time; requests arriving meanwhile are picked up by
+		 * that thread before it leaves.
+		 */
+		private void drain() {
+			if ( drainRequests.getAndIncrement() != 0 ) {
+				return;
+			}
+
+			do {
+				while ( !done && emitted < count && requested.get() > 0 ) {
+					subscriber.onNext( models.get( (int) ( emitted % models.size() ) ) );
+					emitted++;
+					requested.decrementAndGet();
+				}
+				if ( !done && emitted == count ) {
+					done = true;
+					subscriber.onComplete();
+				}
+			}
+			while ( drainRequests.decrementAndGet() != 0 );
+		}
+	}
+}
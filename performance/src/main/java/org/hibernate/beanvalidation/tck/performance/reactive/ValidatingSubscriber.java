@@ -0,0 +1,173 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.reactive;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Validates the items of a publisher on an executor with bounded concurrency: at most {@code maxConcurrency} items are
+ * requested but not yet validated at any time, further items are only requested as validations complete.
+ * <p>
+ * The result of each validation is compared to the result of validating the same item sequentially, as given by
+ * {@link #getResult(Validator, Object)}, if such a result is known.
+ */
+public class ValidatingSubscriber implements Subscriber<Object> {
+
+	private final Validator validator;
+	private final Executor executor;
+	private final int maxConcurrency;
+	private final Map<Object, Set<String>> expectedResults;
+
+	private final CompletableFuture<Void> completion = new CompletableFuture<>();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder inFlightSum = new LongAdder();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private final LongAdder validated = new LongAdder();
+	private final LongAdder violations = new LongAdder();
+	private final AtomicLong mismatches = new AtomicLong();
+	private volatile Subscription subscription;
+	private volatile boolean publisherCompleted;
+	private volatile String firstMismatch;
+
+	/**
+	 * @param validator the validator to use
+	 * @param executor the executor running the validations
+	 * @param maxConcurrency the maximum number of items validated concurrently
+	 * @param expectedResults the results of the sequential validation by item, compared by identity; items without
+	 * result are not compared
+	 */
+	public ValidatingSubscriber(Validator validator, Executor executor, int maxConcurrency, Map<Object, Set<String>> expectedResults) {
+		this.validator = validator;
+		this.executor = executor;
+		this.maxConcurrency = maxConcurrency;
+		this.expectedResults = expectedResults;
+	}
+
+	/**
+	 * Returns a comparable representation of the result of validating the given item: the property path, constraint
+	 * type and message of each violation.
+	 */
+	public static Set<String> getResult(Validator validator, Object item) {
+		Set<String> result = new TreeSet<>();
+		for ( ConstraintViolation<Object> violation : validator.validate( item ) ) {
+			result.add( violation.getPropertyPath() + " "
+					+ violation.getConstraintDescriptor().getAnnotation().annotationType().getName() + " "
+					+ violation.getMessage() );
+		}
+		return result;
+	}
+
+	@Override
+	public void onSubscribe(Subscription subscription) {
+		this.subscription = subscription;
+		subscription.request( maxConcurrency );
+	}
+
+	@Override
+	public void onNext(Object item) {
+		int current = inFlight.incrementAndGet();
+		inFlightSum.add( current );
+		maxInFlight.accumulateAndGet( current, Math::max );
+
+		executor.execute( () -> {
+			try {
+				validate( item );
+			}
+			catch ( RuntimeException | Error e ) {
+				subscription.cancel();
+				completion.completeExceptionally( e );
+				return;
+			}
+
+			validated.increment();
+			// signal the completion first, as the request may synchronously deliver the next item
+			if ( inFlight.decrementAndGet() == 0 && publisherCompleted ) {
+				completion.complete( null );
+			}
+			else {
+				subscription.request( 1 );
+			}
+		} );
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		completion.completeExceptionally( throwable );
+	}
+
+	@Override
+	public void onComplete() {
+		publisherCompleted = true;
+		if ( inFlight.get() == 0 ) {
+			completion.complete( null );
+		}
+	}
+
+	/**
+	 * Waits until all items have been validated.
+	 */
+	public void await(long timeout, TimeUnit unit) throws Exception {
+		completion.get( timeout, unit );
+	}
+
+	public long getValidated() {
+		return validated.sum();
+	}
+
+	/**
+	 * @return the number of violations
+	 */
+	public long getViolations() {
+		return violations.sum();
+	}
+
+	public long getMismatches() {
+		return mismatches.get();
+	}
+
+	public String getFirstMismatch() {
+		return firstMismatch;
+	}
+
+	public int getMaxInFlight() {
+		return maxInFlight.get();
+	}
+
+	/**
+	 * @return the average number of items in flight when an item was received
+	 */
+	public double getMeanInFlight() {
+		long received = validated.sum();
+		return received == 0 ? 0 : (double) inFlightSum.sum() / received;
+	}
+
+	private void validate(Object item) {
+		Set<String> result = getResult( validator, item );
+		violations.add( result.size() );
+
+		Set<String> expected = expectedResults.get( item );
+		if ( expected != null && !result.equals( expected ) ) {
+			if ( mismatches.getAndIncrement() == 0 ) {
+				firstMismatch = item.getClass().getName() + ": expected " + expected + " but got " + result;
+			}
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.redeploy;
+
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import org.hibernate.beanvalidation.tck.performance.util.JvmMetrics;
+import org.hibernate.beanvalidation.tck.performance.util.TckDeployments;
+import org.hibernate.beanvalidation.tck.performance.util.TckModels;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.hibernate.validator.tck.arquillian.BeanValidationLocalContainer;
+import org.hibernate.validator.tck.arquillian.BeanValidationLocalContainerConfiguration;
+import org.hibernate.validator.tck.arquillian.DeploymentClassLoader;
+import org.jboss.shrinkwrap.api.Archive;
+import org.testng.annotations.Test;
+
+/**
+ * Deploys and undeploys the TCK archives in a loop. For each deployment a {@code ValidatorFactory} is built, the beans
+ * of the deployment are validated and the factory is closed again. The deployments are isolated, i.e. each cycle
+ * defines the classes of the archive anew, so any metadata retained by the provider after closing the factory shows as
+ * growth of the metaspace and the loaded classes.
+ * <p>
+ * Metaspace, loaded classes and old generation occupancy are sampled after each explicit garbage collection, i.e. once
+ * the classes of the undeployed archives could be unloaded. The test fails if any of these metrics keeps growing, i.e.
+ * if the median of the second half of the samples exceeds the median of the first half by more than the configured
+ * tolerance.
+ * <p>
+ * The following system properties are supported:
+ * <ul>
+ * <li>{@code redeploy.cycles}: the number of measured cycles (default: 2000)</li>
+ * <li>{@code redeploy.warmupCycles}: the number of cycles before sampling starts (default: 400)</li>
+ * <li>{@code redeploy.gcInterval}: the number of cycles between two explicit garbage collections and samples
+ * (default: 50)</li>
+ * <li>{@code redeploy.maxMetaspaceGrowth}: the tolerated metaspace growth in bytes (default: 8 MB)</li>
+ * <li>{@code redeploy.maxLoadedClassGrowth}: the tolerated growth of the loaded class count (default: 200)</li>
+ * <li>{@code redeploy.maxOldGenGrowth}: the tolerated old generation growth in bytes (default: 32 MB)</li>
+ * </ul>
+ */
+public class RedeployChurnTest {
+
+	private static final Logger log = Logger.getLogger( RedeployChurnTest.class.getName() );
+
+	private static final int CYCLES = Integer.getInteger( "redeploy.cycles", 2000 );
+	private static final int WARMUP_CYCLES = Integer.getInteger( "redeploy.warmupCycles", 400 );
+	private static final int GC_INTERVAL = Integer.getInteger( "redeploy.gcInterval", 50 );
+	private static final long MAX_METASPACE_GROWTH = Long.getLong( "redeploy.maxMetaspaceGrowth", 8L * 1024 * 1024 );
+	private static final long MAX_LOADED_CLASS_GROWTH = Long.getLong( "redeploy.maxLoadedClassGrowth", 200L );
+	private static final long MAX_OLD_GEN_GROWTH = Long.getLong( "redeploy.maxOldGenGrowth", 32L * 1024 * 1024 );
+
+	@Test
+	public void testRepeatedRedeploymentHasBoundedMemoryGrowth() throws Exception {
+		List<Class<?>> testClasses = TckDeployments.getDeployableTestClasses();
+		List<Archive<?>> deployments = new ArrayList<>();
+		for ( Class<?> testClass : testClasses ) {
+			deployments.add( TckDeployments.createDeployment( testClass ) );
+		}
+		assertTrue( !deployments.isEmpty(), "No TCK deployments found" );
+
+		BeanValidationLocalContainer container = new BeanValidationLocalContainer();
+		BeanValidationLocalContainerConfiguration configuration = new BeanValidationLocalContainerConfiguration();
+		configuration.setClassLoaderIsolation( true );
+		container.setup( configuration );
+
+		int samples = CYCLES / GC_INTERVAL;
+		long[] metaspace = new long[samples];
+		long[] loadedClasses = new long[samples];
+		long[] oldGen = new long[samples];
+
+		for ( int cycle = 0; cycle < WARMUP_CYCLES + CYCLES; cycle++ ) {
+			Archive<?> deployment = deployments.get( cycle % deployments.size() );
+
+			container.deploy( deployment );
+			try {
+				// as within a container, the test class is part of the deployment, e.g. as enclosing class of its models
+				( (DeploymentClassLoader) Thread.currentThread().getContextClassLoader() )
+						.addTestClass( testClasses.get( cycle % deployments.size() ) );
+				validateDeployment( deployment );
+			}
+			finally {
+				container.undeploy( deployment );
+			}
+
+			if ( ( cycle + 1 ) % GC_INTERVAL == 0 ) {
+				// the classes of the undeployed archives are only unloaded by a garbage collection
+				System.gc();
+
+				int sample = ( cycle + 1 - WARMUP_CYCLES ) / GC_INTERVAL - 1;
+				if ( sample >= 0 && sample < samples ) {
+					JvmMetrics metrics = JvmMetrics.sample();
+					metaspace[sample] = metrics.getMetaspaceUsed();
+					loadedClasses[sample] = metrics.getLoadedClassCount();
+					oldGen[sample] = metrics.getOldGenUsedAfterGc();
+				}
+			}
+		}
+
+		List<String> failures = new ArrayList<>();
+		checkGrowth( "metaspace", metaspace, MAX_METASPACE_GROWTH, failures );
+		checkGrowth( "loaded classes", loadedClasses, MAX_LOADED_CLASS_GROWTH, failures );
+		checkGrowth( "old generation", oldGen, MAX_OLD_GEN_GROWTH, failures );
+
+		assertTrue( failures.isEmpty(), "Unbounded growth after " + CYCLES + " redeployments: " + failures );
+	}
+
+	private static void validateDeployment(Archive<?> deployment) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+		ValidatorFactory validatorFactory;
+		try {
+			validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+		}
+		catch ( ValidationException e ) {
+			// some deployments contain an invalid configuration on purpose
+			return;
+		}
+
+		try {
+			Validator validator = validatorFactory.getValidator();
+			// the models are validated when they are checked for exceptions
+			for ( Object model : TckModels.getModels( deployment, classLoader, validator ) ) {
+				assertTrue(
+						model.getClass().getClassLoader() == classLoader,
+						model.getClass() + " has not been defined by the class loader of the deployment"
+				);
+			}
+		}
+		finally {
+			validatorFactory.close();
+		}
+	}
+
+	private static void checkGrowth(String metric, long[] samples, long tolerance, List<String> failures) {
+		if ( samples.length < 2 || samples[0] < 0 ) {
+			log.info( "No samples for " + metric + ", skipping" );
+			return;
+		}
+
+		int half = samples.length / 2;
+		long firstHalfMedian = median( Arrays.copyOfRange( samples, 0, half ) );
+		long secondHalfMedian = median( Arrays.copyOfRange( samples, half, samples.length ) );
+		long growth = secondHalfMedian - firstHalfMedian;
+
+		log.info( String.format(
+				"%s: median of first half %d, median of second half %d, growth %d (tolerance %d)",
+				metric,
+				firstHalfMedian,
+				secondHalfMedian,
+				growth,
+				tolerance
+		) );
+
+		if ( growth > tolerance ) {
+			failures.add( metric + " grew by " + growth );
+		}
+	}
+
+	private static long median(long[] values) {
+		long[] sorted = values.clone();
+		Arrays.sort( sorted );
+		return sorted[sorted.length / 2];
+	}
+}
@@ -0,0 +1,41 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.redundancy;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.ElementType.TYPE_USE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+/**
+ * A constraint which is always valid and records each of its evaluations in the {@link EvaluationRecorder}.
+ */
+@Documented
+@Constraint(validatedBy = EvaluatedValidator.class)
+@Target({ TYPE, METHOD, FIELD, TYPE_USE })
+@Retention(RUNTIME)
+public @interface Evaluated {
+
+	String message() default "evaluated";
+
+	Class<?>[] groups() default { };
+
+	Class<? extends Payload>[] payload() default { };
+
+	/**
+	 * @return identifies the declaration of the constraint in the evaluation records
+	 */
+	String value();
+}
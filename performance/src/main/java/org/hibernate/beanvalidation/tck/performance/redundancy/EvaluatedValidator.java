@@ -0,0 +1,29 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.redundancy;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Records the evaluations of the {@link Evaluated} constraint.
+ */
+public class EvaluatedValidator implements ConstraintValidator<Evaluated, Object> {
+
+	private Evaluated constraint;
+
+	@Override
+	public void initialize(Evaluated constraintAnnotation) {
+		this.constraint = constraintAnnotation;
+	}
+
+	@Override
+	public boolean isValid(Object value, ConstraintValidatorContext context) {
+		EvaluationRecorder.record( constraint, value );
+		return true;
+	}
+}
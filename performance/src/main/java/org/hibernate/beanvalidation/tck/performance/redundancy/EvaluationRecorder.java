@@ -0,0 +1,106 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.redundancy;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the evaluations of {@link Evaluated} constraints per constraint declaration, validated value (by identity) and
+ * groups of the constraint during one validation on the current thread.
+ */
+public final class EvaluationRecorder {
+
+	private static final ThreadLocal<Map<Evaluation, Integer>> EVALUATIONS = new ThreadLocal<>();
+
+	private EvaluationRecorder() {
+	}
+
+	/**
+	 * Starts recording the evaluations on the current thread.
+	 */
+	public static void start() {
+		EVALUATIONS.set( new HashMap<>() );
+	}
+
+	/**
+	 * Stops recording the evaluations on the current thread.
+	 *
+	 * @return the number of evaluations per constraint declaration, value and groups
+	 */
+	public static Map<Evaluation, Integer> stop() {
+		Map<Evaluation, Integer> evaluations = EVALUATIONS.get();
+		EVALUATIONS.remove();
+		return evaluations;
+	}
+
+	static void record(Evaluated constraint, Object value) {
+		Map<Evaluation, Integer> evaluations = EVALUATIONS.get();
+		if ( evaluations != null ) {
+			evaluations.merge( new Evaluation( constraint.value(), value, constraint.groups() ), 1, Integer::sum );
+		}
+	}
+
+	/**
+	 * The evaluation of a constraint declaration for a given value. Values are compared by identity.
+	 */
+	public static class Evaluation {
+
+		private final String constraint;
+		private final Object value;
+		private final Class<?>[] groups;
+
+		Evaluation(String constraint, Object value, Class<?>[] groups) {
+			this.constraint = constraint;
+			this.value = value;
+			this.groups = groups;
+		}
+
+		public String getConstraint() {
+			return constraint;
+		}
+
+		public Object getValue() {
+			return value;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( o == null || getClass() != o.getClass() ) {
+				return false;
+			}
+
+			Evaluation other = (Evaluation) o;
+			return constraint.equals( other.constraint ) && value == other.value && Arrays.equals( groups, other.groups );
+		}
+
+		@Override
+		public int hashCode() {
+			int result = constraint.hashCode();
+			result = 31 * result + System.identityHashCode( value );
+			result = 31 * result + Arrays.hashCode( groups );
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder( constraint ).append( " on " );
+			sb.append( value == null ? "null" : value.getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( value ) ) );
+			if ( groups.length > 0 ) {
+				sb.append( " in groups " );
+				for ( int i = 0; i < groups.length; i++ ) {
+					sb.append( i > 0 ? ", " : "" ).append( groups[i].getSimpleName() );
+				}
+			}
+			return sb.toString();
+		}
+	}
+}
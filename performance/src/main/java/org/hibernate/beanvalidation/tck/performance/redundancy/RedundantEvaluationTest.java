@@ -0,0 +1,208 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.redundancy;
+
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import javax.validation.GroupSequence;
+import javax.validation.Valid;
+import javax.validation.Validator;
+import javax.validation.groups.Default;
+
+import org.hibernate.beanvalidation.tck.performance.redundancy.EvaluationRecorder.Evaluation;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Detects constraints which are evaluated more often than required by the spec within one validation call.
+ * <p>
+ * A constraint declaration has to be evaluated at most once per validated value and path, no matter how many of the
+ * requested groups it belongs to. Values reachable via several paths, e.g. the same element contained several times in
+ * a collection, require one evaluation per path, as a violation has to be reported for each of them. Constraints
+ * declared on an overridden method and on the overriding method are distinct declarations, each to be evaluated once.
+ * <p>
+ * The scenarios mirror the cases covered by {@code GroupTest}, {@code SameElementContainedSeveralTimesInCollectionTest}
+ * and {@code ConstraintInheritanceTest}, using the always valid {@link Evaluated} constraint to count the evaluations.
+ */
+public class RedundantEvaluationTest {
+
+	private static final Logger log = Logger.getLogger( RedundantEvaluationTest.class.getName() );
+
+	private Validator validator;
+
+	@BeforeClass
+	public void createValidator() {
+		validator = TestUtil.getValidatorUnderTest();
+	}
+
+	@Test
+	public void testConstraintInSeveralRequestedGroups() {
+		Customer customer = new Customer( "Alice", "alice@example.com" );
+
+		assertNoRedundantEvaluations( "several requested groups", customer, new HashMap<>(), Default.class, Basic.class, Billing.class );
+	}
+
+	@Test
+	public void testConstraintInSeveralInheritedGroups() {
+		Customer customer = new Customer( "Alice", "alice@example.com" );
+
+		assertNoRedundantEvaluations( "several inherited groups", customer, new HashMap<>(), Full.class );
+	}
+
+	@Test
+	public void testConstraintInSeveralGroupsOfSequence() {
+		Customer customer = new Customer( "Alice", "alice@example.com" );
+
+		assertNoRedundantEvaluations( "several groups of a sequence", customer, new HashMap<>(), BasicThenBilling.class );
+	}
+
+	@Test
+	public void testSameElementContainedSeveralTimes() {
+		Item item = new Item( "Apple" );
+		String tag = "fruit";
+		Basket basket = new Basket( Arrays.asList( item, item ), Arrays.asList( tag, tag ), item );
+
+		Map<Evaluation, Integer> required = new HashMap<>();
+		// one evaluation per path: two list elements and one property
+		required.put( new Evaluation( "Item", item, new Class<?>[0] ), 3 );
+		required.put( new Evaluation( "Item.name", item.name, new Class<?>[0] ), 3 );
+		required.put( new Evaluation( "Basket.tags<element>", tag, new Class<?>[0] ), 2 );
+
+		assertNoRedundantEvaluations( "same element contained several times", basket, required );
+	}
+
+	@Test
+	public void testInheritedAndRedefinedConstraints() {
+		assertNoRedundantEvaluations( "inherited and redefined constraints", new Car(), new HashMap<>() );
+	}
+
+	/**
+	 * Validates the given bean and fails if any constraint is evaluated more often than required.
+	 *
+	 * @param scenario the scenario, for reporting
+	 * @param bean the bean to validate
+	 * @param required the required number of evaluations, if different from one
+	 * @param groups the groups to validate
+	 */
+	private void assertNoRedundantEvaluations(String scenario, Object bean, Map<Evaluation, Integer> required, Class<?>... groups) {
+		EvaluationRecorder.start();
+		Map<Evaluation, Integer> evaluations;
+		try {
+			validator.validate( bean, groups );
+		}
+		finally {
+			evaluations = EvaluationRecorder.stop();
+		}
+
+		List<String> redundant = new ArrayList<>();
+		for ( Map.Entry<Evaluation, Integer> evaluation : evaluations.entrySet() ) {
+			int expected = required.getOrDefault( evaluation.getKey(), 1 );
+			if ( evaluation.getValue() > expected ) {
+				redundant.add( evaluation.getKey() + ": " + evaluation.getValue() + " evaluations, " + expected + " required" );
+			}
+		}
+
+		log.info( scenario + ": " + evaluations.size() + " evaluated constraints, redundant evaluations: "
+				+ ( redundant.isEmpty() ? "none" : redundant ) );
+
+		assertTrue( !evaluations.isEmpty(), scenario + ": no constraint evaluated" );
+		assertTrue( redundant.isEmpty(), scenario + ": redundant evaluations " + redundant );
+	}
+
+	private interface Basic {
+	}
+
+	private interface Billing {
+	}
+
+	private interface Full extends Default, Basic, Billing {
+	}
+
+	@GroupSequence({ Basic.class, Billing.class })
+	private interface BasicThenBilling {
+	}
+
+	@Evaluated("Customer")
+	private static class Customer {
+
+		@Evaluated(value = "Customer.name", groups = { Basic.class, Billing.class })
+		private final String name;
+
+		@Evaluated(value = "Customer.email", groups = { Default.class, Basic.class })
+		private final String email;
+
+		private Customer(String name, String email) {
+			this.name = name;
+			this.email = email;
+		}
+	}
+
+	@Evaluated("Item")
+	private static class Item {
+
+		@Evaluated("Item.name")
+		private final String name;
+
+		private Item(String name) {
+			this.name = name;
+		}
+	}
+
+	private static class Basket {
+
+		private final List<@Valid Item> items;
+
+		private final List<@Evaluated("Basket.tags<element>") String> tags;
+
+		@Valid
+		private final Item favourite;
+
+		private Basket(List<Item> items, List<String> tags, Item favourite) {
+			this.items = items;
+			this.tags = tags;
+			this.favourite = favourite;
+		}
+	}
+
+	private interface Insured {
+
+		@Evaluated("Insured.policy")
+		String getPolicy();
+	}
+
+	@Evaluated("Vehicle")
+	private static class Vehicle {
+
+		@Evaluated("Vehicle.wheels")
+		public Integer getWheels() {
+			return 2;
+		}
+	}
+
+	@Evaluated("Car")
+	private static class Car extends Vehicle implements Insured {
+
+		@Override
+		@Evaluated("Car.wheels")
+		public Integer getWheels() {
+			return 4;
+		}
+
+		@Override
+		public String getPolicy() {
+			return "P-1";
+		}
+	}
+}
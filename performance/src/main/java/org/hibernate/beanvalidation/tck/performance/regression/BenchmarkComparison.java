@@ -0,0 +1,153 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.regression;
+
+import org.apache.commons.math3.distribution.TDistribution;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+
+/**
+ * Compares the result of a benchmark to its baseline.
+ * <p>
+ * The change of the score is given relative to the baseline score, together with a confidence interval for it. The
+ * interval is computed with Welch's t-test from the mean scores of the forks of both runs. The iterations of one fork
+ * share the JIT compilation and memory layout of their JVM, so their scores vary less than the scores of separate runs;
+ * the fork scores include this run-to-run variance. Both results therefore need at least two forks. A change is
+ * significant if its confidence interval does not contain zero and the change exceeds the given threshold.
+ * <p>
+ * Results with different units or with less than two forks cannot be compared; their verdict is
+ * {@link Verdict#INCOMPARABLE} and the change and its interval are {@code NaN}.
+ */
+public final class BenchmarkComparison {
+
+	public enum Verdict {
+		REGRESSION,
+		IMPROVEMENT,
+		UNCHANGED,
+		INCOMPARABLE
+	}
+
+	private final BenchmarkResult baseline;
+	private final BenchmarkResult current;
+	private final double change;
+	private final double changeLow;
+	private final double changeHigh;
+	private final Verdict verdict;
+	private final String incomparabilityReason;
+
+	/**
+	 * @param baseline the baseline result
+	 * @param current the result of the current run of the same benchmark
+	 * @param threshold the minimum relative change considered a regression or improvement, e.g. 0.05 for 5%
+	 * @param confidenceLevel the confidence level of the interval of the change, e.g. 0.99
+	 */
+	public BenchmarkComparison(BenchmarkResult baseline, BenchmarkResult current, double threshold, double confidenceLevel) {
+		this.baseline = baseline;
+		this.current = current;
+		this.incomparabilityReason = getIncomparabilityReason( baseline, current );
+
+		if ( incomparabilityReason != null ) {
+			this.change = Double.NaN;
+			this.changeLow = Double.NaN;
+			this.changeHigh = Double.NaN;
+			this.verdict = Verdict.INCOMPARABLE;
+			return;
+		}
+
+		SummaryStatistics baselineStatistics = statistics( baseline.getForkScores() );
+		SummaryStatistics currentStatistics = statistics( current.getForkScores() );
+
+		double baselineVariance = baselineStatistics.getVariance() / baselineStatistics.getN();
+		double currentVariance = currentStatistics.getVariance() / currentStatistics.getN();
+		double standardError = Math.sqrt( baselineVariance + currentVariance );
+
+		double halfWidth = 0;
+		if ( standardError > 0 ) {
+			double degreesOfFreedom = Math.pow( baselineVariance + currentVariance, 2 )
+					/ ( baselineVariance * baselineVariance / ( baselineStatistics.getN() - 1 )
+							+ currentVariance * currentVariance / ( currentStatistics.getN() - 1 ) );
+			halfWidth = new TDistribution( degreesOfFreedom ).inverseCumulativeProbability( 1 - ( 1 - confidenceLevel ) / 2 )
+					* standardError;
+		}
+
+		double difference = current.getScore() - baseline.getScore();
+		this.change = difference / baseline.getScore();
+		this.changeLow = ( difference - halfWidth ) / baseline.getScore();
+		this.changeHigh = ( difference + halfWidth ) / baseline.getScore();
+
+		boolean significant = ( changeLow > 0 || changeHigh < 0 ) && Math.abs( change ) >= threshold;
+		if ( !significant ) {
+			verdict = Verdict.UNCHANGED;
+		}
+		else if ( ( change > 0 ) == current.isHigherBetter() ) {
+			verdict = Verdict.IMPROVEMENT;
+		}
+		else {
+			verdict = Verdict.REGRESSION;
+		}
+	}
+
+	private static String getIncomparabilityReason(BenchmarkResult baseline, BenchmarkResult current) {
+		if ( !baseline.getUnit().equals( current.getUnit() ) ) {
+			return "the baseline unit " + baseline.getUnit() + " differs from the current unit " + current.getUnit();
+		}
+		if ( baseline.getForkScores().length < 2 ) {
+			return "the baseline has " + baseline.getForkScores().length + " fork(s), at least two are required";
+		}
+		if ( current.getForkScores().length < 2 ) {
+			return "the current run has " + current.getForkScores().length + " fork(s), at least two are required";
+		}
+		return null;
+	}
+
+	private static SummaryStatistics statistics(double[] values) {
+		SummaryStatistics statistics = new SummaryStatistics();
+		for ( double value : values ) {
+			statistics.addValue( value );
+		}
+		return statistics;
+	}
+
+	public BenchmarkResult getBaseline() {
+		return baseline;
+	}
+
+	public BenchmarkResult getCurrent() {
+		return current;
+	}
+
+	/**
+	 * @return the change of the score relative to the baseline score, e.g. 0.1 if the score increased by 10%
+	 */
+	public double getChange() {
+		return change;
+	}
+
+	/**
+	 * @return the lower bound of the confidence interval of the relative change
+	 */
+	public double getChangeLow() {
+		return changeLow;
+	}
+
+	/**
+	 * @return the upper bound of the confidence interval of the relative change
+	 */
+	public double getChangeHigh() {
+		return changeHigh;
+	}
+
+	public Verdict getVerdict() {
+		return verdict;
+	}
+
+	/**
+	 * @return why the results cannot be compared or {@code null} if they can
+	 */
+	public String getIncomparabilityReason() {
+		return incomparabilityReason;
+	}
+}
@@ -0,0 +1,177 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.regression;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.beanvalidation.tck.performance.regression.BenchmarkComparison.Verdict;
+
+/**
+ * Compares the JMH results of a benchmark run against the baseline stored for a provider version and stores the
+ * results as baseline of the version under test. Run by the <i>benchmarks-regression</i> profile after the benchmarks.
+ * <p>
+ * Baselines are stored as {@code <baseline directory>/<provider>/<version>/benchmark-results.json}. If there is no
+ * baseline for the version under test yet, the results are stored as its baseline; an existing baseline is only
+ * replaced if requested. A comparison against the baseline of another version (e.g. the version in use before a
+ * provider upgrade) requires that baseline to exist. The results of a run with regressions are not stored unless the
+ * replacement of the baseline is requested.
+ * <p>
+ * Expects the following arguments:
+ * <ol>
+ * <li>the JMH result file of the current run, written with {@code -rf json}</li>
+ * <li>the baseline directory</li>
+ * <li>the name of the provider under test, e.g. its artifact id</li>
+ * <li>the version of the provider under test</li>
+ * <li>the provider version whose baseline to compare against</li>
+ * <li>the minimum change of a score in percent considered a regression</li>
+ * <li>the confidence level of the confidence interval of the change, e.g. 0.99</li>
+ * <li>{@code true} to replace an existing baseline of the version under test</li>
+ * </ol>
+ * Prints the change of each benchmark relative to the baseline and fails with an exception if any benchmark regressed
+ * significantly. Benchmarks which cannot be compared, e.g. as the baseline was run with a single fork, are reported as
+ * incomparable together with the reason, but do not fail the comparison.
+ */
+public class BenchmarkRegressionGate {
+
+	private static final String RESULTS_FILE_NAME = "benchmark-results.json";
+
+	public static void main(String[] args) throws Exception {
+		if ( args.length != 8 ) {
+			throw new IllegalArgumentException(
+					"Usage: BenchmarkRegressionGate <results file> <baseline directory> <provider> <version> <baseline version> "
+							+ "<threshold percent> <confidence level> <update baseline>"
+			);
+		}
+
+		Path resultsFile = Paths.get( args[0] );
+		Path baselineDirectory = Paths.get( args[1] );
+		String provider = args[2];
+		String version = args[3];
+		String baselineVersion = args[4];
+		double threshold = Double.parseDouble( args[5] ) / 100;
+		double confidenceLevel = Double.parseDouble( args[6] );
+		boolean updateBaseline = Boolean.parseBoolean( args[7] );
+
+		Map<String, BenchmarkResult> results = BenchmarkResult.read( resultsFile );
+		Path baselineFile = baselineDirectory.resolve( provider ).resolve( baselineVersion ).resolve( RESULTS_FILE_NAME );
+		Path targetFile = baselineDirectory.resolve( provider ).resolve( version ).resolve( RESULTS_FILE_NAME );
+
+		List<String> regressions = new ArrayList<>();
+		if ( Files.exists( baselineFile ) ) {
+			System.out.printf( "Comparing %s %s against the baseline of %s (%s)%n%n", provider, version, baselineVersion, baselineFile );
+			regressions = compare( BenchmarkResult.read( baselineFile ), results, threshold, confidenceLevel );
+		}
+		else if ( !baselineVersion.equals( version ) ) {
+			throw new IllegalArgumentException(
+					"There is no baseline for " + provider + " " + baselineVersion + " at " + baselineFile
+							+ "; run the benchmarks against that version first"
+			);
+		}
+		else {
+			System.out.printf( "There is no baseline for %s %s yet, nothing to compare%n", provider, version );
+		}
+
+		if ( updateBaseline || ( !Files.exists( targetFile ) && regressions.isEmpty() ) ) {
+			Files.createDirectories( targetFile.getParent() );
+			Files.copy( resultsFile, targetFile, StandardCopyOption.REPLACE_EXISTING );
+			System.out.printf( "Stored the results as baseline of %s %s at %s%n", provider, version, targetFile );
+		}
+
+		if ( !regressions.isEmpty() ) {
+			throw new IllegalStateException(
+					regressions.size() + " benchmark(s) regressed compared to " + provider + " " + baselineVersion + ": "
+							+ String.join( ", ", regressions )
+			);
+		}
+	}
+
+	/**
+	 * Prints the change of each benchmark and returns the benchmarks which regressed.
+	 */
+	private static List<String> compare(Map<String, BenchmarkResult> baselines, Map<String, BenchmarkResult> results,
+			double threshold, double confidenceLevel) {
+		List<String> regressions = new ArrayList<>();
+		int improvements = 0;
+		int incomparable = 0;
+
+		System.out.printf(
+				"%-14s %14s %14s %-9s %8s  %-20s %s%n",
+				"Verdict",
+				"Baseline",
+				"Current",
+				"Unit",
+				"Change",
+				String.format( "%.1f%% interval", confidenceLevel * 100 ),
+				"Benchmark"
+		);
+
+		for ( BenchmarkResult result : results.values() ) {
+			BenchmarkResult baseline = baselines.get( result.getKey() );
+			if ( baseline == null ) {
+				System.out.printf( "%-14s %14s %14.3f %-9s %8s  %-20s %s%n", "NEW", "", result.getScore(), result.getUnit(), "", "", result.getKey() );
+				continue;
+			}
+
+			BenchmarkComparison comparison = new BenchmarkComparison( baseline, result, threshold, confidenceLevel );
+			if ( comparison.getVerdict() == Verdict.REGRESSION ) {
+				regressions.add( result.getKey() );
+			}
+			else if ( comparison.getVerdict() == Verdict.IMPROVEMENT ) {
+				improvements++;
+			}
+			else if ( comparison.getVerdict() == Verdict.INCOMPARABLE ) {
+				incomparable++;
+				System.out.printf(
+						"%-14s %14.3f %14.3f %-9s %8s  %-20s %s (%s)%n",
+						comparison.getVerdict(),
+						baseline.getScore(),
+						result.getScore(),
+						result.getUnit(),
+						"",
+						"",
+						result.getKey(),
+						comparison.getIncomparabilityReason()
+				);
+				continue;
+			}
+
+			System.out.printf(
+					"%-14s %14.3f %14.3f %-9s %+7.1f%%  %-20s %s%n",
+					comparison.getVerdict(),
+					baseline.getScore(),
+					result.getScore(),
+					result.getUnit(),
+					comparison.getChange() * 100,
+					String.format( "[%+.1f%%, %+.1f%%]", comparison.getChangeLow() * 100, comparison.getChangeHigh() * 100 ),
+					result.getKey()
+			);
+		}
+
+		for ( BenchmarkResult baseline : baselines.values() ) {
+			if ( !results.containsKey( baseline.getKey() ) ) {
+				System.out.printf( "%-14s %14.3f %14s %-9s %8s  %-20s %s%n", "NOT RUN", baseline.getScore(), "", baseline.getUnit(), "", "", baseline.getKey() );
+			}
+		}
+
+		System.out.printf(
+				"%n%d regression(s), %d improvement(s) of at least %.1f%% at a confidence level of %.1f%%, %d incomparable benchmark(s)%n",
+				regressions.size(),
+				improvements,
+				threshold * 100,
+				confidenceLevel * 100,
+				incomparable
+		);
+
+		return regressions;
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.regression;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The primary metric of one benchmark, with one set of parameter values, as read from a JMH result file written with
+ * {@code -rf json}.
+ */
+public final class BenchmarkResult {
+
+	private static final String PACKAGE_PREFIX = "org.hibernate.beanvalidation.tck.performance.";
+
+	private final String benchmark;
+	private final String mode;
+	private final String unit;
+	private final double score;
+	private final double[] forkScores;
+
+	private BenchmarkResult(String benchmark, String mode, String unit, double score, double[] forkScores) {
+		this.benchmark = benchmark;
+		this.mode = mode;
+		this.unit = unit;
+		this.score = score;
+		this.forkScores = forkScores;
+	}
+
+	/**
+	 * Reads the given JMH result file.
+	 *
+	 * @return the results by {@link #getKey() key}, in the order of the file
+	 */
+	public static Map<String, BenchmarkResult> read(Path file) throws IOException {
+		Object json = JsonReader.parse( new String( Files.readAllBytes( file ), StandardCharsets.UTF_8 ) );
+		if ( !( json instanceof List ) ) {
+			throw new IllegalArgumentException( file + " is not a JMH result file" );
+		}
+
+		Map<String, BenchmarkResult> results = new LinkedHashMap<>();
+		for ( Object element : (List<?>) json ) {
+			BenchmarkResult result = of( (Map<?, ?>) element );
+			results.put( result.getKey(), result );
+		}
+		return results;
+	}
+
+	private static BenchmarkResult of(Map<?, ?> json) {
+		StringBuilder benchmark = new StringBuilder( json.get( "benchmark" ).toString().replace( PACKAGE_PREFIX, "" ) );
+		Map<?, ?> params = (Map<?, ?>) json.get( "params" );
+		if ( params != null ) {
+			benchmark.append( new TreeMap<>( params ).toString().replace( '{', ':' ).replace( "}", "" ).replace( " ", "" ) );
+		}
+
+		Map<?, ?> metric = (Map<?, ?>) json.get( "primaryMetric" );
+
+		// per fork, either a list of iteration scores or, for the sample mode, a list of histograms per iteration
+		List<Double> forkScores = new ArrayList<>();
+		List<?> rawData = (List<?>) metric.get( "rawData" );
+		for ( Object fork : rawData != null ? rawData : Collections.emptyList() ) {
+			double sum = 0;
+			for ( Object iterationScore : (List<?>) fork ) {
+				sum += toDouble( iterationScore );
+			}
+			forkScores.add( sum / ( (List<?>) fork ).size() );
+		}
+		List<?> rawDataHistogram = (List<?>) metric.get( "rawDataHistogram" );
+		for ( Object fork : rawDataHistogram != null ? rawDataHistogram : Collections.emptyList() ) {
+			double sum = 0;
+			long count = 0;
+			for ( Object iterationHistogram : (List<?>) fork ) {
+				for ( Object bucket : (List<?>) iterationHistogram ) {
+					double value = toDouble( ( (List<?>) bucket ).get( 0 ) );
+					long occurrences = (long) toDouble( ( (List<?>) bucket ).get( 1 ) );
+					sum += value * occurrences;
+					count += occurrences;
+				}
+			}
+			forkScores.add( sum / count );
+		}
+
+		return new BenchmarkResult(
+				benchmark.toString(),
+				json.get( "mode" ).toString(),
+				metric.get( "scoreUnit" ).toString(),
+				toDouble( metric.get( "score" ) ),
+				forkScores.stream().mapToDouble( Double::doubleValue ).toArray()
+		);
+	}
+
+	private static double toDouble(Object value) {
+		// JMH writes non-finite values such as NaN as strings
+		return value instanceof Double ? (Double) value : Double.parseDouble( value.toString() );
+	}
+
+	/**
+	 * @return the benchmark and the mode, identifying the result within a run
+	 */
+	public String getKey() {
+		return benchmark + " " + mode;
+	}
+
+	/**
+	 * @return the name of the benchmark method relative to the performance package, followed by the parameter values,
+	 * e.g. {@code composition.ComposedConstraintBenchmark.validateInvalidBean:composingConstraints=2,depth=6,reportAsSingleViolation=true}
+	 */
+	public String getBenchmark() {
+		return benchmark;
+	}
+
+	public String getMode() {
+		return mode;
+	}
+
+	public String getUnit() {
+		return unit;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	/**
+	 * @return the mean score of the measurement iterations of each fork
+	 */
+	public double[] getForkScores() {
+		return forkScores;
+	}
+
+	/**
+	 * @return {@code true} if a higher score is better, i.e. for the throughput mode
+	 */
+	public boolean isHigherBetter() {
+		return "thrpt".equals( mode );
+	}
+}
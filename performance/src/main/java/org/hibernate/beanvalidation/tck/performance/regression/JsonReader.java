@@ -0,0 +1,204 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.regression;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal JSON parser, sufficient for reading the result files written by JMH. Objects are returned as {@link Map}s,
+ * arrays as {@link List}s, numbers as {@link Double}s.
+ */
+final class JsonReader {
+
+	private final String json;
+	private int position;
+
+	private JsonReader(String json) {
+		this.json = json;
+	}
+
+	static Object parse(String json) {
+		JsonReader reader = new JsonReader( json );
+		Object value = reader.readValue();
+		reader.skipWhitespace();
+		if ( reader.position != json.length() ) {
+			throw reader.error( "Unexpected trailing content" );
+		}
+		return value;
+	}
+
+	private Object readValue() {
+		skipWhitespace();
+		if ( position == json.length() ) {
+			throw error( "Unexpected end of input" );
+		}
+
+		char c = json.charAt( position );
+		switch ( c ) {
+			case '{':
+				return readObject();
+			case '[':
+				return readArray();
+			case '"':
+				return readString();
+			case 't':
+				return readLiteral( "true", Boolean.TRUE );
+			case 'f':
+				return readLiteral( "false", Boolean.FALSE );
+			case 'n':
+				return readLiteral( "null", null );
+			default:
+				return readNumber();
+		}
+	}
+
+	private Map<String, Object> readObject() {
+		Map<String, Object> object = new LinkedHashMap<>();
+		position++;
+		skipWhitespace();
+		if ( peek() == '}' ) {
+			position++;
+			return object;
+		}
+
+		while ( true ) {
+			skipWhitespace();
+			if ( peek() != '"' ) {
+				throw error( "Expected a property name" );
+			}
+			String name = readString();
+			skipWhitespace();
+			expect( ':' );
+			object.put( name, readValue() );
+			skipWhitespace();
+			if ( peek() == ',' ) {
+				position++;
+			}
+			else {
+				expect( '}' );
+				return object;
+			}
+		}
+	}
+
+	private List<Object> readArray() {
+		List<Object> array = new ArrayList<>();
+		position++;
+		skipWhitespace();
+		if ( peek() == ']' ) {
+			position++;
+			return array;
+		}
+
+		while ( true ) {
+			array.add( readValue() );
+			skipWhitespace();
+			if ( peek() == ',' ) {
+				position++;
+			}
+			else {
+				expect( ']' );
+				return array;
+			}
+		}
+	}
+
+	private String readString() {
+		StringBuilder sb = new StringBuilder();
+		position++;
+		while ( true ) {
+			char c = next();
+			if ( c == '"' ) {
+				return sb.toString();
+			}
+			if ( c != '\\' ) {
+				sb.append( c );
+				continue;
+			}
+
+			char escaped = next();
+			switch ( escaped ) {
+				case 'b':
+					sb.append( '\b' );
+					break;
+				case 'f':
+					sb.append( '\f' );
+					break;
+				case 'n':
+					sb.append( '\n' );
+					break;
+				case 'r':
+					sb.append( '\r' );
+					break;
+				case 't':
+					sb.append( '\t' );
+					break;
+				case 'u':
+					if ( position + 4 > json.length() ) {
+						throw error( "Incomplete unicode escape" );
+					}
+					sb.append( (char) Integer.parseInt( json.substring( position, position + 4 ), 16 ) );
+					position += 4;
+					break;
+				default:
+					sb.append( escaped );
+			}
+		}
+	}
+
+	private Double readNumber() {
+		int start = position;
+		while ( position < json.length() && "+-0123456789.eE".indexOf( json.charAt( position ) ) >= 0 ) {
+			position++;
+		}
+		if ( start == position ) {
+			throw error( "Unexpected character '" + json.charAt( position ) + "'" );
+		}
+		return Double.valueOf( json.substring( start, position ) );
+	}
+
+	private Object readLiteral(String literal, Object value) {
+		if ( !json.startsWith( literal, position ) ) {
+			throw error( "Expected " + literal );
+		}
+		position += literal.length();
+		return value;
+	}
+
+	private void skipWhitespace() {
+		while ( position < json.length() && Character.isWhitespace( json.charAt( position ) ) ) {
+			position++;
+		}
+	}
+
+	private char peek() {
+		if ( position == json.length() ) {
+			throw error( "Unexpected end of input" );
+		}
+		return json.charAt( position );
+	}
+
+	private char next() {
+		char c = peek();
+		position++;
+		return c;
+	}
+
+	private void expect(char expected) {
+		if ( next() != expected ) {
+			position--;
+			throw error( "Expected '" + expected + "'" );
+		}
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException( message + " at position " + position + " of the JSON document" );
+	}
+}
@@ -0,0 +1,36 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.spi;
+
+import java.time.Clock;
+
+import javax.validation.ClockProvider;
+
+/**
+ * Counts and times the calls of a {@code ClockProvider}.
+ */
+class CountingClockProvider implements ClockProvider {
+
+	private final ClockProvider delegate;
+	private final SpiCallStatistics statistics;
+
+	CountingClockProvider(ClockProvider delegate, SpiCallStatistics statistics) {
+		this.delegate = delegate;
+		this.statistics = statistics;
+	}
+
+	@Override
+	public Clock getClock() {
+		long start = System.nanoTime();
+		try {
+			return delegate.getClock();
+		}
+		finally {
+			statistics.record( "ClockProvider.getClock", start );
+		}
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.spi;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorFactory;
+
+/**
+ * Counts and times the calls of a {@code ConstraintValidatorFactory}.
+ */
+class CountingConstraintValidatorFactory implements ConstraintValidatorFactory {
+
+	private final ConstraintValidatorFactory delegate;
+	private final SpiCallStatistics statistics;
+
+	CountingConstraintValidatorFactory(ConstraintValidatorFactory delegate, SpiCallStatistics statistics) {
+		this.delegate = delegate;
+		this.statistics = statistics;
+	}
+
+	@Override
+	public <T extends ConstraintValidator<?, ?>> T getInstance(Class<T> key) {
+		long start = System.nanoTime();
+		try {
+			return delegate.getInstance( key );
+		}
+		finally {
+			statistics.record( "ConstraintValidatorFactory.getInstance", start );
+		}
+	}
+
+	@Override
+	public void releaseInstance(ConstraintValidator<?, ?> instance) {
+		long start = System.nanoTime();
+		try {
+			delegate.releaseInstance( instance );
+		}
+		finally {
+			statistics.record( "ConstraintValidatorFactory.releaseInstance", start );
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.spi;
+
+import java.util.Locale;
+
+import javax.validation.MessageInterpolator;
+
+/**
+ * Counts and times the calls of a {@code MessageInterpolator}.
+ */
+class CountingMessageInterpolator implements MessageInterpolator {
+
+	private final MessageInterpolator delegate;
+	private final SpiCallStatistics statistics;
+
+	CountingMessageInterpolator(MessageInterpolator delegate, SpiCallStatistics statistics) {
+		this.delegate = delegate;
+		this.statistics = statistics;
+	}
+
+	@Override
+	public String interpolate(String messageTemplate, Context context) {
+		long start = System.nanoTime();
+		try {
+			return delegate.interpolate( messageTemplate, context );
+		}
+		finally {
+			statistics.record( "MessageInterpolator.interpolate", start );
+		}
+	}
+
+	@Override
+	public String interpolate(String messageTemplate, Context context, Locale locale) {
+		long start = System.nanoTime();
+		try {
+			return delegate.interpolate( messageTemplate, context, locale );
+		}
+		finally {
+			statistics.record( "MessageInterpolator.interpolate(Locale)", start );
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.spi;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import javax.validation.ParameterNameProvider;
+
+/**
+ * Counts and times the calls of a {@code ParameterNameProvider}.
+ */
+class CountingParameterNameProvider implements ParameterNameProvider {
+
+	private final ParameterNameProvider delegate;
+	private final SpiCallStatistics statistics;
+
+	CountingParameterNameProvider(ParameterNameProvider delegate, SpiCallStatistics statistics) {
+		this.delegate = delegate;
+		this.statistics = statistics;
+	}
+
+	@Override
+	public List<String> getParameterNames(Constructor<?> constructor) {
+		long start = System.nanoTime();
+		try {
+			return delegate.getParameterNames( constructor );
+		}
+		finally {
+			statistics.record( "ParameterNameProvider.getParameterNames(Constructor)", start );
+		}
+	}
+
+	@Override
+	public List<String> getParameterNames(Method method) {
+		long start = System.nanoTime();
+		try {
+			return delegate.getParameterNames( method );
+		}
+		finally {
+			statistics.record( "ParameterNameProvider.getParameterNames(Method)", start );
+		}
+	}
+}
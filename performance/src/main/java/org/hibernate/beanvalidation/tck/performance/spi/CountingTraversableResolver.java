@@ -0,0 +1,48 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.spi;
+
+import java.lang.annotation.ElementType;
+
+import javax.validation.Path;
+import javax.validation.TraversableResolver;
+
+/**
+ * Counts and times the calls of a {@code TraversableResolver}.
+ */
+class CountingTraversableResolver implements TraversableResolver {
+
+	private final TraversableResolver delegate;
+	private final SpiCallStatistics statistics;
+
+	CountingTraversableResolver(TraversableResolver delegate, SpiCallStatistics statistics) {
+		this.delegate = delegate;
+		this.statistics = statistics;
+	}
+
+	@Override
+	public boolean isReachable(Object traversableObject, Path.Node traversableProperty, Class<?> rootBeanType, Path pathToTraversableObject, ElementType elementType) {
+		long start = System.nanoTime();
+		try {
+			return delegate.isReachable( traversableObject, traversableProperty, rootBeanType, pathToTraversableObject, elementType );
+		}
+		finally {
+			statistics.record( "TraversableResolver.isReachable", start );
+		}
+	}
+
+	@Override
+	public boolean isCascadable(Object traversableObject, Path.Node traversableProperty, Class<?> rootBeanType, Path pathToTraversableObject, ElementType elementType) {
+		long start = System.nanoTime();
+		try {
+			return delegate.isCascadable( traversableObject, traversableProperty, rootBeanType, pathToTraversableObject, elementType );
+		}
+		finally {
+			statistics.record( "TraversableResolver.isCascadable", start );
+		}
+	}
+}
@@ -0,0 +1,214 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.spi;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.validation.valueextraction.ExtractedValue;
+import javax.validation.valueextraction.ValueExtractor;
+import javax.validation.valueextraction.ValueExtractor.ValueReceiver;
+
+/**
+ * Counting replacements of the built-in value extractors of the most common container types.
+ * <p>
+ * Unlike the other SPIs, value extractors cannot be wrapped generically: the provider determines the extracted type
+ * from the {@code @ExtractedValue} annotation in the declaration of the implementing class. Therefore these extractors
+ * re-implement the extraction as defined by the spec and override the built-in extractors when added to the
+ * configuration.
+ * <p>
+ * The recorded time only covers the extraction itself: the provider validates the extracted values within the calls of
+ * the {@link ValueReceiver}, so the time spent in the receiver is not counted.
+ */
+final class CountingValueExtractors {
+
+	private CountingValueExtractors() {
+	}
+
+	static List<ValueExtractor<?>> create(SpiCallStatistics statistics) {
+		return Arrays.<ValueExtractor<?>>asList(
+				new ListValueExtractor( statistics ),
+				new IterableValueExtractor( statistics ),
+				new MapKeyExtractor( statistics ),
+				new MapValueExtractor( statistics ),
+				new OptionalValueExtractor( statistics )
+		);
+	}
+
+	private static class ListValueExtractor implements ValueExtractor<List<@ExtractedValue ?>> {
+
+		private final SpiCallStatistics statistics;
+
+		private ListValueExtractor(SpiCallStatistics statistics) {
+			this.statistics = statistics;
+		}
+
+		@Override
+		public void extractValues(List<?> originalValue, ValueReceiver receiver) {
+			TimedReceiver timedReceiver = new TimedReceiver( receiver );
+			long start = System.nanoTime();
+			try {
+				for ( int i = 0; i < originalValue.size(); i++ ) {
+					timedReceiver.indexedValue( "<list element>", i, originalValue.get( i ) );
+				}
+			}
+			finally {
+				statistics.record( "ValueExtractor.extractValues(List)", start, timedReceiver.nanos );
+			}
+		}
+	}
+
+	private static class IterableValueExtractor implements ValueExtractor<Iterable<@ExtractedValue ?>> {
+
+		private final SpiCallStatistics statistics;
+
+		private IterableValueExtractor(SpiCallStatistics statistics) {
+			this.statistics = statistics;
+		}
+
+		@Override
+		public void extractValues(Iterable<?> originalValue, ValueReceiver receiver) {
+			TimedReceiver timedReceiver = new TimedReceiver( receiver );
+			long start = System.nanoTime();
+			try {
+				for ( Object element : originalValue ) {
+					timedReceiver.iterableValue( "<iterable element>", element );
+				}
+			}
+			finally {
+				statistics.record( "ValueExtractor.extractValues(Iterable)", start, timedReceiver.nanos );
+			}
+		}
+	}
+
+	private static class MapKeyExtractor implements ValueExtractor<Map<@ExtractedValue ?, ?>> {
+
+		private final SpiCallStatistics statistics;
+
+		private MapKeyExtractor(SpiCallStatistics statistics) {
+			this.statistics = statistics;
+		}
+
+		@Override
+		public void extractValues(Map<?, ?> originalValue, ValueReceiver receiver) {
+			TimedReceiver timedReceiver = new TimedReceiver( receiver );
+			long start = System.nanoTime();
+			try {
+				for ( Object key : originalValue.keySet() ) {
+					timedReceiver.keyedValue( "<map key>", key, key );
+				}
+			}
+			finally {
+				statistics.record( "ValueExtractor.extractValues(Map key)", start, timedReceiver.nanos );
+			}
+		}
+	}
+
+	private static class MapValueExtractor implements ValueExtractor<Map<?, @ExtractedValue ?>> {
+
+		private final SpiCallStatistics statistics;
+
+		private MapValueExtractor(SpiCallStatistics statistics) {
+			this.statistics = statistics;
+		}
+
+		@Override
+		public void extractValues(Map<?, ?> originalValue, ValueReceiver receiver) {
+			TimedReceiver timedReceiver = new TimedReceiver( receiver );
+			long start = System.nanoTime();
+			try {
+				for ( Map.Entry<?, ?> entry : originalValue.entrySet() ) {
+					timedReceiver.keyedValue( "<map value>", entry.getKey(), entry.getValue() );
+				}
+			}
+			finally {
+				statistics.record( "ValueExtractor.extractValues(Map value)", start, timedReceiver.nanos );
+			}
+		}
+	}
+
+	private static class OptionalValueExtractor implements ValueExtractor<Optional<@ExtractedValue ?>> {
+
+		private final SpiCallStatistics statistics;
+
+		private OptionalValueExtractor(SpiCallStatistics statistics) {
+			this.statistics = statistics;
+		}
+
+		@Override
+		public void extractValues(Optional<?> originalValue, ValueReceiver receiver) {
+			TimedReceiver timedReceiver = new TimedReceiver( receiver );
+			long start = System.nanoTime();
+			try {
+				timedReceiver.value( null, originalValue.isPresent() ? originalValue.get() : null );
+			}
+			finally {
+				statistics.record( "ValueExtractor.extractValues(Optional)", start, timedReceiver.nanos );
+			}
+		}
+	}
+
+	/**
+	 * Measures the time spent in the given receiver.
+	 */
+	private static class TimedReceiver implements ValueReceiver {
+
+		private final ValueReceiver delegate;
+
+		private long nanos;
+
+		private TimedReceiver(ValueReceiver delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void value(String nodeName, Object object) {
+			long start = System.nanoTime();
+			try {
+				delegate.value( nodeName, object );
+			}
+			finally {
+				nanos += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public void iterableValue(String nodeName, Object object) {
+			long start = System.nanoTime();
+			try {
+				delegate.iterableValue( nodeName, object );
+			}
+			finally {
+				nanos += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public void indexedValue(String nodeName, int i, Object object) {
+			long start = System.nanoTime();
+			try {
+				delegate.indexedValue( nodeName, i, object );
+			}
+			finally {
+				nanos += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public void keyedValue(String nodeName, Object key, Object object) {
+			long start = System.nanoTime();
+			try {
+				delegate.keyedValue( nodeName, key, object );
+			}
+			finally {
+				nanos += System.nanoTime() - start;
+			}
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.spi;
+
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import javax.validation.Configuration;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.validation.executable.ExecutableValidator;
+
+import org.hibernate.beanvalidation.tck.performance.util.TckModels;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Validates the TCK models with all bootstrap SPIs wrapped by counting implementations and reports how often the
+ * provider calls each SPI method per validation and how much time is spent in them.
+ * <p>
+ * The first round is reported separately, as it includes the calls made while the metadata of the models is built.
+ * Besides bean validation, the parameters of the model methods are validated with {@code null} arguments, so that the
+ * SPIs only involved in method validation are exercised as well. Methods whose parameters cannot be validated that way,
+ * e.g. as their constraints are declared illegally on purpose, are dropped before.
+ * <p>
+ * The following system properties are supported:
+ * <ul>
+ * <li>{@code spi.rounds}: the number of times all models are validated after the first round (default: 20)</li>
+ * </ul>
+ */
+public class SpiCallPatternTest {
+
+	private static final Logger log = Logger.getLogger( SpiCallPatternTest.class.getName() );
+
+	private static final int ROUNDS = Integer.getInteger( "spi.rounds", 20 );
+
+	@Test
+	public void testSpiCallsPerValidation() {
+		List<Object> models = TckModels.getAllModels();
+		assertTrue( !models.isEmpty(), "No TCK models found" );
+		Map<Object, List<Method>> methods = getValidatableMethods( models );
+
+		SpiCallStatistics statistics = new SpiCallStatistics();
+		Configuration<?> configuration = TestUtil.getConfigurationUnderTest();
+		SpiInstrumentation.instrument( configuration, statistics );
+		ValidatorFactory validatorFactory = configuration.buildValidatorFactory();
+
+		try {
+			Validator validator = validatorFactory.getValidator();
+
+			long validations = validate( validator, models, methods );
+			log.info( "SPI calls of the first round (" + validations + " validations):\n" + statistics.format( validations ) );
+
+			statistics.reset();
+			validations = 0;
+			for ( int round = 0; round < ROUNDS; round++ ) {
+				validations += validate( validator, models, methods );
+			}
+			log.info( "SPI calls of the following " + ROUNDS + " rounds (" + validations + " validations):\n" + statistics.format( validations ) );
+
+			assertTrue( !statistics.getCalls().isEmpty(), "No SPI calls recorded" );
+		}
+		finally {
+			validatorFactory.close();
+		}
+	}
+
+	private static long validate(Validator validator, List<Object> models, Map<Object, List<Method>> methods) {
+		ExecutableValidator executableValidator = validator.forExecutables();
+		long validations = 0;
+
+		for ( Object model : models ) {
+			validations++;
+			validator.validate( model );
+
+			for ( Method method : methods.get( model ) ) {
+				validations++;
+				executableValidator.validateParameters( model, method, new Object[method.getParameterCount()] );
+			}
+		}
+
+		return validations;
+	}
+
+	/**
+	 * Returns the methods of each model whose parameters can be validated with {@code null} arguments. They are
+	 * checked with a validator factory of their own, so the SPI calls of the first round still include building the
+	 * metadata.
+	 */
+	private static Map<Object, List<Method>> getValidatableMethods(List<Object> models) {
+		Map<Object, List<Method>> methods = new IdentityHashMap<>();
+		int invalidMethods = 0;
+
+		ValidatorFactory validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+		try {
+			ExecutableValidator executableValidator = validatorFactory.getValidator().forExecutables();
+			for ( Object model : models ) {
+				List<Method> modelMethods = new ArrayList<>();
+				for ( Method method : model.getClass().getDeclaredMethods() ) {
+					if ( !hasOnlyReferenceParameters( method ) ) {
+						continue;
+					}
+
+					try {
+						executableValidator.validateParameters( model, method, new Object[method.getParameterCount()] );
+						modelMethods.add( method );
+					}
+					catch ( ValidationException e ) {
+						invalidMethods++;
+					}
+				}
+				methods.put( model, modelMethods );
+			}
+		}
+		finally {
+			validatorFactory.close();
+		}
+
+		log.info( "Dropped " + invalidMethods + " methods whose parameter validation raises an exception" );
+		return methods;
+	}
+
+	private static boolean hasOnlyReferenceParameters(Method method) {
+		if ( Modifier.isStatic( method.getModifiers() ) || method.isSynthetic() || method.getParameterCount() == 0 ) {
+			return false;
+		}
+
+		for ( Class<?> parameterType : method.getParameterTypes() ) {
+			if ( parameterType.isPrimitive() ) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
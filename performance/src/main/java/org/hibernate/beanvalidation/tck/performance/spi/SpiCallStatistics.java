@@ -0,0 +1,108 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.spi;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The number of calls and the time spent in the methods of the bootstrap SPIs, as recorded by the wrappers installed
+ * via {@link SpiInstrumentation}.
+ */
+public class SpiCallStatistics {
+
+	private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+	/**
+	 * Records a call of the given SPI method.
+	 *
+	 * @param operation the SPI method, e.g. {@code MessageInterpolator.interpolate}
+	 * @param startNanos the value of {@link System#nanoTime()} before the call
+	 */
+	void record(String operation, long startNanos) {
+		record( operation, startNanos, 0 );
+	}
+
+	/**
+	 * Records a call of the given SPI method, not counting the given time spent in callbacks of the provider.
+	 *
+	 * @param operation the SPI method, e.g. {@code MessageInterpolator.interpolate}
+	 * @param startNanos the value of {@link System#nanoTime()} before the call
+	 * @param excludedNanos the time spent in callbacks of the provider during the call
+	 */
+	void record(String operation, long startNanos, long excludedNanos) {
+		long duration = System.nanoTime() - startNanos - excludedNanos;
+
+		Counter counter = counters.get( operation );
+		if ( counter == null ) {
+			counter = counters.computeIfAbsent( operation, k -> new Counter() );
+		}
+		counter.calls.increment();
+		counter.nanos.add( duration );
+	}
+
+	public long getCalls(String operation) {
+		Counter counter = counters.get( operation );
+		return counter != null ? counter.calls.sum() : 0;
+	}
+
+	public long getNanos(String operation) {
+		Counter counter = counters.get( operation );
+		return counter != null ? counter.nanos.sum() : 0;
+	}
+
+	/**
+	 * @return the number of calls per SPI method, sorted by method
+	 */
+	public Map<String, Long> getCalls() {
+		Map<String, Long> calls = new TreeMap<>();
+		for ( Map.Entry<String, Counter> counter : counters.entrySet() ) {
+			calls.put( counter.getKey(), counter.getValue().calls.sum() );
+		}
+		return calls;
+	}
+
+	public void reset() {
+		counters.clear();
+	}
+
+	/**
+	 * Formats the statistics as a table.
+	 *
+	 * @param validations the number of validation calls the statistics were recorded for
+	 *
+	 * @return the formatted statistics
+	 */
+	public String format(long validations) {
+		StringBuilder sb = new StringBuilder();
+		sb.append( String.format( "%-55s %12s %16s %12s %12s%n", "SPI method", "calls", "per validation", "total (ms)", "mean (us)" ) );
+
+		for ( Map.Entry<String, Long> calls : getCalls().entrySet() ) {
+			long nanos = getNanos( calls.getKey() );
+			sb.append( String.format(
+					"%-55s %12d %16.3f %12d %12.3f%n",
+					calls.getKey(),
+					calls.getValue(),
+					validations > 0 ? (double) calls.getValue() / validations : 0.0,
+					TimeUnit.NANOSECONDS.toMillis( nanos ),
+					calls.getValue() > 0 ? nanos / 1000.0 / calls.getValue() : 0.0
+			) );
+		}
+
+		return sb.toString();
+	}
+
+	private static class Counter {
+
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+	}
+}
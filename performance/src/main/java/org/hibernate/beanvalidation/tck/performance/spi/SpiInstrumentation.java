@@ -0,0 +1,39 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.spi;
+
+import javax.validation.Configuration;
+import javax.validation.valueextraction.ValueExtractor;
+
+/**
+ * Installs counting wrappers around the bootstrap SPIs of a {@code Configuration}: {@code MessageInterpolator},
+ * {@code TraversableResolver}, {@code ConstraintValidatorFactory}, {@code ParameterNameProvider}, {@code ClockProvider}
+ * and the value extractors of the common container types.
+ */
+public final class SpiInstrumentation {
+
+	private SpiInstrumentation() {
+	}
+
+	/**
+	 * Wraps the default SPI implementations of the given configuration, recording the calls to the given statistics.
+	 *
+	 * @param configuration the configuration to instrument
+	 * @param statistics the statistics to record the calls to
+	 */
+	public static void instrument(Configuration<?> configuration, SpiCallStatistics statistics) {
+		configuration.messageInterpolator( new CountingMessageInterpolator( configuration.getDefaultMessageInterpolator(), statistics ) )
+				.traversableResolver( new CountingTraversableResolver( configuration.getDefaultTraversableResolver(), statistics ) )
+				.constraintValidatorFactory( new CountingConstraintValidatorFactory( configuration.getDefaultConstraintValidatorFactory(), statistics ) )
+				.parameterNameProvider( new CountingParameterNameProvider( configuration.getDefaultParameterNameProvider(), statistics ) )
+				.clockProvider( new CountingClockProvider( configuration.getDefaultClockProvider(), statistics ) );
+
+		for ( ValueExtractor<?> valueExtractor : CountingValueExtractors.create( statistics ) ) {
+			configuration.addValueExtractor( valueExtractor );
+		}
+	}
+}
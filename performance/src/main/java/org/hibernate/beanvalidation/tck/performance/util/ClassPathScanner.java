@@ -0,0 +1,85 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Lists the resources below a given path of the class path, be it in a directory or in a JAR.
+ */
+public final class ClassPathScanner {
+
+	private ClassPathScanner() {
+	}
+
+	/**
+	 * Returns the names of all resources below the given path and with the given suffix, sorted by name.
+	 *
+	 * @param path the path to scan, e.g. {@code org/hibernate/beanvalidation/tck/tests}
+	 * @param suffix the suffix of the resources to return, e.g. {@code .class}
+	 *
+	 * @return the resource names, e.g. {@code org/hibernate/beanvalidation/tck/tests/AbstractTCKTest.class}
+	 */
+	public static List<String> getResourceNames(String path, String suffix) {
+		List<String> resourceNames = new ArrayList<>();
+
+		try {
+			Enumeration<URL> resources = ClassPathScanner.class.getClassLoader().getResources( path );
+			while ( resources.hasMoreElements() ) {
+				URL resource = resources.nextElement();
+				if ( "jar".equals( resource.getProtocol() ) ) {
+					addResourceNames( ( (JarURLConnection) resource.openConnection() ).getJarFile(), path, suffix, resourceNames );
+				}
+				else {
+					addResourceNames( new File( URLDecoder.decode( resource.getPath(), "UTF-8" ) ), path, suffix, resourceNames );
+				}
+			}
+		}
+		catch ( IOException e ) {
+			throw new RuntimeException( "Unable to scan " + path, e );
+		}
+
+		Collections.sort( resourceNames );
+		return resourceNames;
+	}
+
+	private static void addResourceNames(JarFile jarFile, String path, String suffix, List<String> resourceNames) {
+		Enumeration<JarEntry> entries = jarFile.entries();
+		while ( entries.hasMoreElements() ) {
+			String name = entries.nextElement().getName();
+			if ( name.startsWith( path ) && name.endsWith( suffix ) ) {
+				resourceNames.add( name );
+			}
+		}
+	}
+
+	private static void addResourceNames(File directory, String path, String suffix, List<String> resourceNames) {
+		File[] files = directory.listFiles();
+		if ( files == null ) {
+			return;
+		}
+
+		for ( File file : files ) {
+			if ( file.isDirectory() ) {
+				addResourceNames( file, path + "/" + file.getName(), suffix, resourceNames );
+			}
+			else if ( file.getName().endsWith( suffix ) ) {
+				resourceNames.add( path + "/" + file.getName() );
+			}
+		}
+	}
+}
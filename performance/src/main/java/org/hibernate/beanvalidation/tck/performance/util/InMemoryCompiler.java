@@ -0,0 +1,160 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles generated Java sources in memory and loads the resulting classes, allowing the benchmarks to use models
+ * whose shape (width, depth etc.) is only known at runtime. Requires a JDK, not only a JRE.
+ */
+public final class InMemoryCompiler {
+
+	private InMemoryCompiler() {
+	}
+
+	/**
+	 * Compiles the given sources against the class path of the given class loader.
+	 *
+	 * @param sources the sources to compile, keyed by the fully qualified name of their top-level class
+	 * @param parent the class loader to resolve referenced classes with
+	 *
+	 * @return a class loader which loads the compiled classes
+	 */
+	public static ClassLoader compile(Map<String, String> sources, ClassLoader parent) {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if ( compiler == null ) {
+			throw new IllegalStateException( "No Java compiler available, the benchmarks must be run with a JDK" );
+		}
+
+		List<JavaFileObject> compilationUnits = new ArrayList<>();
+		for ( Map.Entry<String, String> source : sources.entrySet() ) {
+			compilationUnits.add( new SourceFile( source.getKey(), source.getValue() ) );
+		}
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		Map<String, ByteArrayOutputStream> classFiles = new HashMap<>();
+		StandardJavaFileManager standardFileManager = compiler.getStandardFileManager( diagnostics, null, null );
+		JavaFileManager fileManager = new ClassFileCollector( standardFileManager, classFiles );
+
+		List<String> options = Arrays.asList( "-proc:none", "-classpath", getClassPath( parent ) );
+		boolean success = compiler.getTask( null, fileManager, diagnostics, options, null, compilationUnits ).call();
+		if ( !success ) {
+			throw new IllegalStateException( "Compilation of generated sources failed: " + diagnostics.getDiagnostics() );
+		}
+
+		Map<String, byte[]> classes = new HashMap<>();
+		for ( Map.Entry<String, ByteArrayOutputStream> classFile : classFiles.entrySet() ) {
+			classes.put( classFile.getKey(), classFile.getValue().toByteArray() );
+		}
+		return new GeneratedClassLoader( classes, parent );
+	}
+
+	private static String getClassPath(ClassLoader classLoader) {
+		Set<String> entries = new LinkedHashSet<>( Arrays.asList( System.getProperty( "java.class.path" ).split( File.pathSeparator ) ) );
+
+		for ( ClassLoader current = classLoader; current != null; current = current.getParent() ) {
+			if ( current instanceof URLClassLoader ) {
+				for ( URL url : ( (URLClassLoader) current ).getURLs() ) {
+					if ( "file".equals( url.getProtocol() ) ) {
+						entries.add( new File( URI.create( url.toString() ) ).getPath() );
+					}
+				}
+			}
+		}
+
+		return String.join( File.pathSeparator, entries );
+	}
+
+	private static class SourceFile extends SimpleJavaFileObject {
+
+		private final String source;
+
+		private SourceFile(String className, String source) {
+			super( URI.create( "string:///" + className.replace( '.', '/' ) + Kind.SOURCE.extension ), Kind.SOURCE );
+			this.source = source;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return source;
+		}
+	}
+
+	private static class ClassFile extends SimpleJavaFileObject {
+
+		private final ByteArrayOutputStream content;
+
+		private ClassFile(String className, ByteArrayOutputStream content) {
+			super( URI.create( "bytes:///" + className.replace( '.', '/' ) + Kind.CLASS.extension ), Kind.CLASS );
+			this.content = content;
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return content;
+		}
+	}
+
+	private static class ClassFileCollector extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+		private final Map<String, ByteArrayOutputStream> classFiles;
+
+		private ClassFileCollector(StandardJavaFileManager fileManager, Map<String, ByteArrayOutputStream> classFiles) {
+			super( fileManager );
+			this.classFiles = classFiles;
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			classFiles.put( className, content );
+			return new ClassFile( className, content );
+		}
+	}
+
+	private static class GeneratedClassLoader extends ClassLoader {
+
+		private final Map<String, byte[]> classes;
+
+		private GeneratedClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+			super( parent );
+			this.classes = classes;
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			byte[] bytes = classes.get( name );
+			if ( bytes == null ) {
+				throw new ClassNotFoundException( name );
+			}
+			return defineClass( name, bytes, 0, bytes.length );
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+
+/**
+ * A sample of the memory related JVM metrics, retrieved via JMX.
+ */
+public final class JvmMetrics {
+
+	private static final int MAX_GC_ATTEMPTS = 5;
+
+	private final long metaspaceUsed;
+	private final long loadedClassCount;
+	private final long oldGenUsedAfterGc;
+
+	private JvmMetrics(long metaspaceUsed, long loadedClassCount, long oldGenUsedAfterGc) {
+		this.metaspaceUsed = metaspaceUsed;
+		this.loadedClassCount = loadedClassCount;
+		this.oldGenUsedAfterGc = oldGenUsedAfterGc;
+	}
+
+	public static JvmMetrics sample() {
+		long metaspaceUsed = -1;
+		long oldGenUsedAfterGc = -1;
+
+		for ( MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans() ) {
+			if ( "Metaspace".equals( pool.getName() ) ) {
+				metaspaceUsed = pool.getUsage().getUsed();
+			}
+			else if ( isOldGeneration( pool ) ) {
+				MemoryUsage collectionUsage = pool.getCollectionUsage();
+				oldGenUsedAfterGc = collectionUsage != null ? collectionUsage.getUsed() : pool.getUsage().getUsed();
+			}
+		}
+
+		return new JvmMetrics(
+				metaspaceUsed,
+				ManagementFactory.getClassLoadingMXBean().getLoadedClassCount(),
+				oldGenUsedAfterGc
+		);
+	}
+
+	/**
+	 * Triggers the garbage collector a few times and returns the heap memory in use afterwards.
+	 *
+	 * @return the used heap memory in bytes
+	 */
+	public static long usedHeapAfterGc() {
+		long used = Long.MAX_VALUE;
+
+		for ( int i = 0; i < MAX_GC_ATTEMPTS; i++ ) {
+			System.gc();
+			System.runFinalization();
+			long current = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+			if ( current >= used ) {
+				break;
+			}
+			used = current;
+		}
+
+		return used;
+	}
+
+	/**
+	 * @return the used metaspace in bytes or -1 if there is no metaspace memory pool
+	 */
+	public long getMetaspaceUsed() {
+		return metaspaceUsed;
+	}
+
+	public long getLoadedClassCount() {
+		return loadedClassCount;
+	}
+
+	/**
+	 * @return the occupancy of the old generation after the last collection in bytes or -1 if it cannot be determined
+	 */
+	public long getOldGenUsedAfterGc() {
+		return oldGenUsedAfterGc;
+	}
+
+	private static boolean isOldGeneration(MemoryPoolMXBean pool) {
+		return pool.getType() == MemoryType.HEAP
+				&& ( pool.getName().contains( "Old Gen" ) || pool.getName().contains( "Tenured" ) );
+	}
+
+	@Override
+	public String toString() {
+		return "JvmMetrics [metaspaceUsed=" + metaspaceUsed + ", loadedClassCount=" + loadedClassCount
+				+ ", oldGenUsedAfterGc=" + oldGenUsedAfterGc + "]";
+	}
+}
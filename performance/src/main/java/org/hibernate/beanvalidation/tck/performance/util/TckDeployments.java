@@ -0,0 +1,135 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.beanvalidation.tck.util.IntegrationTest;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.Node;
+
+/**
+ * Gives access to the test classes of the TCK and their deployments.
+ */
+public final class TckDeployments {
+
+	private static final String TESTS_PACKAGE = "org.hibernate.beanvalidation.tck.tests";
+	private static final String WEB_ARCHIVE_CLASSES_PREFIX = "/WEB-INF/classes/";
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	private TckDeployments() {
+	}
+
+	/**
+	 * Returns all TCK test classes with a {@code @Deployment} method which can be run outside of a Java EE container,
+	 * sorted by name.
+	 *
+	 * @return the deployable test classes
+	 */
+	public static List<Class<?>> getDeployableTestClasses() {
+		List<Class<?>> testClasses = new ArrayList<>();
+
+		for ( String className : getClassNames( TESTS_PACKAGE ) ) {
+			Class<?> clazz = loadClass( className, TckDeployments.class.getClassLoader() );
+			if ( clazz != null && isDeployable( clazz ) ) {
+				testClasses.add( clazz );
+			}
+		}
+
+		return testClasses;
+	}
+
+	/**
+	 * Invokes the {@code @Deployment} method of the given test class.
+	 *
+	 * @param testClass the test class
+	 *
+	 * @return the deployment of the given test class
+	 */
+	public static Archive<?> createDeployment(Class<?> testClass) {
+		Method deploymentMethod = getDeploymentMethod( testClass );
+		if ( deploymentMethod == null ) {
+			throw new IllegalArgumentException( "No static @Deployment method found on " + testClass.getName() );
+		}
+
+		try {
+			return (Archive<?>) deploymentMethod.invoke( null );
+		}
+		catch ( IllegalAccessException | InvocationTargetException e ) {
+			throw new RuntimeException( "Unable to create the deployment of " + testClass.getName(), e );
+		}
+	}
+
+	/**
+	 * Returns the classes contained in the given deployment, skipping the ones which cannot be loaded in the current
+	 * environment (e.g. classes depending on JavaFX).
+	 *
+	 * @param archive the deployment
+	 * @param classLoader the class loader to load the classes with
+	 *
+	 * @return the classes contained in the given deployment
+	 */
+	public static List<Class<?>> getClasses(Archive<?> archive, ClassLoader classLoader) {
+		List<Class<?>> classes = new ArrayList<>();
+
+		for ( Map.Entry<ArchivePath, Node> entry : archive.getContent().entrySet() ) {
+			String path = entry.getKey().get();
+			if ( path.startsWith( WEB_ARCHIVE_CLASSES_PREFIX ) && path.endsWith( CLASS_FILE_SUFFIX ) ) {
+				String className = path.substring( WEB_ARCHIVE_CLASSES_PREFIX.length(), path.length() - CLASS_FILE_SUFFIX.length() )
+						.replace( '/', '.' );
+				Class<?> clazz = loadClass( className, classLoader );
+				if ( clazz != null ) {
+					classes.add( clazz );
+				}
+			}
+		}
+
+		return classes;
+	}
+
+	private static boolean isDeployable(Class<?> clazz) {
+		try {
+			return !clazz.isAnnotationPresent( IntegrationTest.class ) && getDeploymentMethod( clazz ) != null;
+		}
+		catch ( LinkageError e ) {
+			return false;
+		}
+	}
+
+	private static Method getDeploymentMethod(Class<?> testClass) {
+		for ( Method method : testClass.getMethods() ) {
+			if ( method.isAnnotationPresent( Deployment.class ) && Modifier.isStatic( method.getModifiers() ) ) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private static Class<?> loadClass(String className, ClassLoader classLoader) {
+		try {
+			return Class.forName( className, false, classLoader );
+		}
+		catch ( ClassNotFoundException | LinkageError e ) {
+			return null;
+		}
+	}
+
+	private static List<String> getClassNames(String packageName) {
+		List<String> classNames = new ArrayList<>();
+		for ( String resourceName : ClassPathScanner.getResourceNames( packageName.replace( '.', '/' ), CLASS_FILE_SUFFIX ) ) {
+			classNames.add( resourceName.substring( 0, resourceName.length() - CLASS_FILE_SUFFIX.length() ).replace( '/', '.' ) );
+		}
+		return classNames;
+	}
+}
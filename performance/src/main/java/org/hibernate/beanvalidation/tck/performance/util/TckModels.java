@@ -0,0 +1,160 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import org.hibernate.beanvalidation.tck.tests.AbstractTCKTest;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.jboss.shrinkwrap.api.Archive;
+
+/**
+ * Gives access to instances of the model classes of the TCK, i.e. the beans validated by the TCK tests.
+ * <p>
+ * The test classes, the harness classes and the implementations of the Bean Validation API (constraint validators,
+ * value extractors, payloads and the SPIs) contained in the deployments are not considered as models. As many of the
+ * TCK models are invalid on purpose, the models are validated twice before they are returned and those whose
+ * validation raises an exception are dropped, so the suites do not need to expect exceptions. Validating twice also
+ * drops the models whose validators may only be called once, as some TCK tests check.
+ */
+public final class TckModels {
+
+	private static final Logger log = Logger.getLogger( TckModels.class.getName() );
+
+	private static final String API_PACKAGE_PREFIX = "javax.validation.";
+
+	private static final String HARNESS_PACKAGE_PREFIX = "org.hibernate.beanvalidation.tck.util.";
+
+	private TckModels() {
+	}
+
+	/**
+	 * Returns an instance of each model class of the given deployment which can be instantiated via a no-argument
+	 * constructor and be validated by the given validator.
+	 *
+	 * @param deployment the deployment
+	 * @param classLoader the class loader to load the classes with
+	 * @param validator the validator to check the models with
+	 *
+	 * @return the model instances
+	 */
+	public static List<Object> getModels(Archive<?> deployment, ClassLoader classLoader, Validator validator) {
+		// logged at a finer level, as the suites redeploy the same archives many times
+		return getValidModels( TckDeployments.getClasses( deployment, classLoader ), validator, deployment.getName(), Level.FINE );
+	}
+
+	/**
+	 * Returns an instance of each model class contained in the deployments of all deployable TCK tests which can be
+	 * instantiated via a no-argument constructor and be validated without exception. The classes are loaded by the
+	 * class loader of this class, i.e. no container is involved. The models are checked with a validator factory of
+	 * their own, so the caches of the validators used by the suites are still empty.
+	 *
+	 * @return the model instances
+	 */
+	public static List<Object> getAllModels() {
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		for ( Class<?> testClass : TckDeployments.getDeployableTestClasses() ) {
+			classes.addAll( TckDeployments.getClasses( TckDeployments.createDeployment( testClass ), TckModels.class.getClassLoader() ) );
+		}
+
+		ValidatorFactory validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+		try {
+			return getValidModels( classes, validatorFactory.getValidator(), "the TCK deployments", Level.INFO );
+		}
+		finally {
+			validatorFactory.close();
+		}
+	}
+
+	/**
+	 * Creates an instance of the given class via its no-argument constructor.
+	 *
+	 * @param clazz the class to instantiate
+	 *
+	 * @return the new instance or {@code null} if the class cannot be instantiated that way
+	 */
+	public static Object instantiate(Class<?> clazz) {
+		int modifiers = clazz.getModifiers();
+		if ( clazz.isInterface() || clazz.isEnum() || clazz.isAnnotation() || Modifier.isAbstract( modifiers )
+				|| ( clazz.isMemberClass() && !Modifier.isStatic( modifiers ) ) ) {
+			return null;
+		}
+
+		try {
+			Constructor<?> constructor = clazz.getDeclaredConstructor();
+			constructor.setAccessible( true );
+			return constructor.newInstance();
+		}
+		catch ( ReflectiveOperationException | RuntimeException | LinkageError e ) {
+			return null;
+		}
+	}
+
+	private static List<Object> getValidModels(Collection<Class<?>> classes, Validator validator, String source, Level level) {
+		List<Object> models = new ArrayList<>();
+		int invalidModels = 0;
+
+		for ( Class<?> clazz : classes ) {
+			Object model = isModel( clazz ) ? instantiate( clazz ) : null;
+			if ( model == null ) {
+				continue;
+			}
+
+			try {
+				validator.validate( model );
+				validator.validate( model );
+				models.add( model );
+			}
+			catch ( ValidationException e ) {
+				invalidModels++;
+			}
+		}
+
+		log.log( level, "Dropped " + invalidModels + " of " + ( models.size() + invalidModels ) + " models of " + source
+				+ " whose validation raises an exception" );
+		return models;
+	}
+
+	/**
+	 * Whether the given class is a model, i.e. neither a test class nor a harness class nor an implementation of an
+	 * interface of the Bean Validation API. The classes are compared by name as they may be loaded by the class loader
+	 * of a deployment.
+	 */
+	private static boolean isModel(Class<?> clazz) {
+		if ( clazz.getName().startsWith( HARNESS_PACKAGE_PREFIX ) ) {
+			return false;
+		}
+
+		for ( Class<?> type = clazz; type != null; type = type.getSuperclass() ) {
+			if ( type.getName().equals( AbstractTCKTest.class.getName() ) || implementsApiInterface( type ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean implementsApiInterface(Class<?> type) {
+		for ( Class<?> implementedInterface : type.getInterfaces() ) {
+			if ( implementedInterface.getName().startsWith( API_PACKAGE_PREFIX ) || implementsApiInterface( implementedInterface ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.wide;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import org.hibernate.beanvalidation.tck.performance.util.InMemoryCompiler;
+import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@code validateProperty()}, {@code validateValue()} and {@code validate()} on a generated bean with
+ * {@code properties} constrained properties.
+ * <p>
+ * The property benchmarks cycle through all property names, so their cost only stays constant across the bean widths
+ * if the provider looks up the metadata of a property by name instead of iterating over all properties. The
+ * {@code cold*} benchmarks use a new factory for each invocation and thus measure the first access to the bean, which
+ * includes building its metadata; bootstrapping the factory happens in the setup of the invocation and is not
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WideBeanBenchmark {
+
+	private static final String PACKAGE = "org.hibernate.beanvalidation.tck.performance.wide.generated";
+
+	@Param({ "100", "1000", "5000" })
+	public int properties;
+
+	private Class<Object> beanClass;
+	private Object bean;
+	private String[] propertyNames;
+	private int nextProperty;
+
+	private ValidatorFactory validatorFactory;
+	private Validator validator;
+
+	@Setup(Level.Trial)
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		ClassLoader classLoader = InMemoryCompiler.compile(
+				Collections.singletonMap( PACKAGE + ".WideBean", generateSource() ),
+				WideBeanBenchmark.class.getClassLoader()
+		);
+		beanClass = (Class<Object>) classLoader.loadClass( PACKAGE + ".WideBean" );
+		bean = beanClass.newInstance();
+
+		propertyNames = new String[properties];
+		for ( int i = 0; i < properties; i++ ) {
+			propertyNames[i] = "property" + i;
+		}
+
+		validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+		validator = validatorFactory.getValidator();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		validatorFactory.close();
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> validateProperty() {
+		return validator.validateProperty( bean, nextPropertyName() );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> validateValue() {
+		return validator.validateValue( beanClass, nextPropertyName(), "value" );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> validate() {
+		return validator.validate( bean );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> coldValidateProperty(ColdValidator cold) {
+		return cold.validator.validateProperty( bean, nextPropertyName() );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> coldValidateValue(ColdValidator cold) {
+		return cold.validator.validateValue( beanClass, nextPropertyName(), "value" );
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Object>> coldValidate(ColdValidator cold) {
+		return cold.validator.validate( bean );
+	}
+
+	private String nextPropertyName() {
+		String propertyName = propertyNames[nextProperty];
+		nextProperty = nextProperty + 1 == properties ? 0 : nextProperty + 1;
+		return propertyName;
+	}
+
+	private String generateSource() {
+		StringBuilder source = new StringBuilder()
+				.append( "package " ).append( PACKAGE ).append( ";\n" )
+				.append( "import javax.validation.constraints.*;\n" )
+				.append( "public class WideBean {\n" );
+
+		for ( int i = 0; i < properties; i++ ) {
+			source.append( "	@NotNull @Size(min = 1, max = 10)\n" )
+					.append( "	private String property" ).append( i ).append( " = \"value\";\n" );
+		}
+
+		return source.append( "}\n" ).toString();
+	}
+
+	/**
+	 * A validator of a new factory for each invocation of the {@code cold*} benchmarks.
+	 */
+	@State(Scope.Thread)
+	public static class ColdValidator {
+
+		private ValidatorFactory validatorFactory;
+		private Validator validator;
+
+		@Setup(Level.Invocation)
+		public void setUp() {
+			validatorFactory = TestUtil.getValidatorFactoryUnderTest();
+			validator = validatorFactory.getValidator();
+		}
+
+		@TearDown(Level.Invocation)
+		public void tearDown() {
+			validatorFactory.close();
+		}
+	}
+}
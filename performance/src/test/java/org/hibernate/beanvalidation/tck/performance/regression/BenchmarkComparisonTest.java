@@ -0,0 +1,160 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.regression;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.hibernate.beanvalidation.tck.performance.regression.BenchmarkComparison.Verdict;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link BenchmarkComparison}, with the results of the JMH result file {@code jmh-result.json}. The expected
+ * intervals are computed from the quantiles of the t-distribution found in the usual tables.
+ */
+public class BenchmarkComparisonTest {
+
+	private static final double DELTA = 1e-6;
+
+	private Map<String, BenchmarkResult> results;
+
+	@BeforeClass
+	public void readResults() throws Exception {
+		results = BenchmarkResult.read( getFixture() );
+	}
+
+	@Test
+	public void testForkScores() {
+		assertEquals( result( "regression.Fixture.twoForks:pattern=^\"[a-z]\\dé/\t$ avgt" ).getForkScores(), new double[] { 10.0, 12.0 } );
+		assertEquals( result( "regression.Fixture.twoForks:pattern=current avgt" ).getScore(), 15.0 );
+
+		BenchmarkResult sample = result( "regression.Fixture.sample sample" );
+		assertTrue( Double.isNaN( sample.getScore() ) );
+		assertEquals( sample.getForkScores(), new double[] { 12.5, 12.0 } );
+	}
+
+	@Test
+	public void testIntervalWithTwoDegreesOfFreedom() {
+		BenchmarkComparison comparison = new BenchmarkComparison(
+				result( "regression.Fixture.twoForks:pattern=^\"[a-z]\\dé/\t$ avgt" ),
+				result( "regression.Fixture.twoForks:pattern=current avgt" ),
+				0.05,
+				0.95
+		);
+
+		// t(0.975, 2) = 4.302653, standard error = sqrt(2)
+		assertEquals( comparison.getChange(), 4.0 / 11, DELTA );
+		assertEquals( comparison.getChangeLow(), ( 4.0 - 4.302653 * Math.sqrt( 2 ) ) / 11, DELTA );
+		assertEquals( comparison.getChangeHigh(), ( 4.0 + 4.302653 * Math.sqrt( 2 ) ) / 11, DELTA );
+		assertEquals( comparison.getVerdict(), Verdict.UNCHANGED );
+		assertNull( comparison.getIncomparabilityReason() );
+	}
+
+	@Test
+	public void testRegressionAtLowerConfidenceLevel() {
+		BenchmarkComparison comparison = new BenchmarkComparison(
+				result( "regression.Fixture.twoForks:pattern=^\"[a-z]\\dé/\t$ avgt" ),
+				result( "regression.Fixture.twoForks:pattern=current avgt" ),
+				0.05,
+				0.8
+		);
+
+		// t(0.9, 2) = 1.885618
+		assertEquals( comparison.getChangeLow(), ( 4.0 - 1.885618 * Math.sqrt( 2 ) ) / 11, DELTA );
+		assertEquals( comparison.getChangeHigh(), ( 4.0 + 1.885618 * Math.sqrt( 2 ) ) / 11, DELTA );
+		assertEquals( comparison.getVerdict(), Verdict.REGRESSION );
+
+		// a higher average time is an improvement when compared the other way round
+		assertEquals(
+				new BenchmarkComparison(
+						result( "regression.Fixture.twoForks:pattern=current avgt" ),
+						result( "regression.Fixture.twoForks:pattern=^\"[a-z]\\dé/\t$ avgt" ),
+						0.05,
+						0.8
+				).getVerdict(),
+				Verdict.IMPROVEMENT
+		);
+	}
+
+	@Test
+	public void testThresholdOfSignificantChange() {
+		BenchmarkComparison comparison = new BenchmarkComparison(
+				result( "regression.Fixture.twoForks:pattern=^\"[a-z]\\dé/\t$ avgt" ),
+				result( "regression.Fixture.twoForks:pattern=current avgt" ),
+				0.5,
+				0.8
+		);
+
+		assertEquals( comparison.getVerdict(), Verdict.UNCHANGED );
+	}
+
+	@Test
+	public void testWelchSatterthwaiteDegreesOfFreedom() {
+		BenchmarkComparison comparison = new BenchmarkComparison(
+				result( "regression.Fixture.threeForks avgt" ),
+				result( "regression.Fixture.threeForks:pattern=current avgt" ),
+				0.05,
+				0.95
+		);
+
+		// variance of the mean 4 / 3 for both runs, giving 4 degrees of freedom; t(0.975, 4) = 2.776445
+		assertEquals( comparison.getChangeLow(), ( 4.0 - 2.776445 * Math.sqrt( 8.0 / 3 ) ) / 11, DELTA );
+		assertEquals( comparison.getChangeHigh(), ( 4.0 + 2.776445 * Math.sqrt( 8.0 / 3 ) ) / 11, DELTA );
+	}
+
+	@Test
+	public void testUnitMismatchIsIncomparable() {
+		BenchmarkComparison comparison = new BenchmarkComparison(
+				result( "regression.Fixture.twoForks:pattern=current avgt" ),
+				result( "regression.Fixture.otherUnit avgt" ),
+				0.05,
+				0.95
+		);
+
+		assertIncomparable( comparison, "the baseline unit us/op differs from the current unit ms/op" );
+	}
+
+	@Test
+	public void testSingleForkIsIncomparable() {
+		BenchmarkResult twoForks = result( "regression.Fixture.twoForks:pattern=current avgt" );
+		BenchmarkResult singleFork = result( "regression.Fixture.singleFork avgt" );
+
+		assertIncomparable(
+				new BenchmarkComparison( singleFork, twoForks, 0.05, 0.95 ),
+				"the baseline has 1 fork(s), at least two are required"
+		);
+		assertIncomparable(
+				new BenchmarkComparison( twoForks, singleFork, 0.05, 0.95 ),
+				"the current run has 1 fork(s), at least two are required"
+		);
+	}
+
+	private static void assertIncomparable(BenchmarkComparison comparison, String reason) {
+		assertEquals( comparison.getVerdict(), Verdict.INCOMPARABLE );
+		assertEquals( comparison.getIncomparabilityReason(), reason );
+		assertTrue( Double.isNaN( comparison.getChange() ) );
+		assertTrue( Double.isNaN( comparison.getChangeLow() ) );
+		assertTrue( Double.isNaN( comparison.getChangeHigh() ) );
+	}
+
+	private BenchmarkResult result(String key) {
+		BenchmarkResult result = results.get( key );
+		assertTrue( result != null, "No result " + key + " in " + results.keySet() );
+		return result;
+	}
+
+	private static Path getFixture() throws URISyntaxException {
+		return Paths.get( BenchmarkComparisonTest.class.getResource( "jmh-result.json" ).toURI() );
+	}
+}
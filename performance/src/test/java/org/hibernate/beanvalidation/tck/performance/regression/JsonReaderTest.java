@@ -0,0 +1,78 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.performance.regression;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link JsonReader}.
+ */
+public class JsonReaderTest {
+
+	@Test
+	public void testEscapes() {
+		assertEquals(
+				JsonReader.parse( "\"\\\"\\\\\\/\\b\\f\\n\\r\\t\\u00e9\\u20AC\"" ),
+				"\"\\/\b\f\n\r\té€"
+		);
+	}
+
+	@Test
+	public void testNumbers() {
+		assertEquals(
+				JsonReader.parse( "[0, -1, 1.5, -2.5e3, 1E-2, 12.0e+1]" ),
+				Arrays.asList( 0.0, -1.0, 1.5, -2500.0, 0.01, 120.0 )
+		);
+	}
+
+	@Test
+	public void testLiterals() {
+		assertEquals( JsonReader.parse( " [ true, false ] \n" ), Arrays.asList( Boolean.TRUE, Boolean.FALSE ) );
+		assertNull( JsonReader.parse( "null" ) );
+		assertEquals( JsonReader.parse( "{}" ), Collections.emptyMap() );
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Unexpected trailing content at position 4 .*")
+	public void testTrailingContent() {
+		JsonReader.parse( "[1] ]" );
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Unexpected end of input .*")
+	public void testIncompleteDocument() {
+		JsonReader.parse( "{\"score\" : " );
+	}
+
+	@Test
+	public void testJmhResultFile() throws Exception {
+		byte[] fixture = Files.readAllBytes( Paths.get( JsonReaderTest.class.getResource( "jmh-result.json" ).toURI() ) );
+		List<?> results = (List<?>) JsonReader.parse( new String( fixture, StandardCharsets.UTF_8 ) );
+		assertEquals( results.size(), 7 );
+
+		Map<?, ?> result = (Map<?, ?>) results.get( 0 );
+		assertEquals( result.get( "benchmark" ), "org.hibernate.beanvalidation.tck.performance.regression.Fixture.twoForks" );
+		assertEquals( result.get( "threads" ), 1.0 );
+		assertEquals( result.get( "jvmArgs" ), Collections.singletonList( "-Xmx1024m" ) );
+		assertEquals( ( (Map<?, ?>) result.get( "params" ) ).get( "pattern" ), "^\"[a-z]\\dé/\t$" );
+
+		Map<?, ?> primaryMetric = (Map<?, ?>) result.get( "primaryMetric" );
+		assertEquals( primaryMetric.get( "scoreError" ), 12.0 );
+		assertEquals( primaryMetric.get( "scoreConfidence" ), Arrays.asList( -1.0, 23.0 ) );
+		assertEquals( primaryMetric.get( "rawData" ), Arrays.asList( Arrays.asList( 10.0, 10.0 ), Arrays.asList( 11.5, 12.5 ) ) );
+		assertEquals( result.get( "secondaryMetrics" ), Collections.emptyMap() );
+	}
+}
@@ -7,26 +7,31 @@
 package org.hibernate.validator.tck.arquillian;
 
 import java.io.InputStream;
-import java.net.URL;
-import java.net.URLClassLoader;
 
 import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.Node;
 import org.jboss.shrinkwrap.api.asset.Asset;
 import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.asset.ClassAsset;
+import org.jboss.shrinkwrap.api.asset.ClassLoaderAsset;
 import org.jboss.shrinkwrap.api.asset.FileAsset;
 import org.jboss.shrinkwrap.api.spec.WebArchive;
 
 /**
  * @author Hardy Ferentschik
  */
-public class ArchiveClassLoader extends URLClassLoader {
+public class ArchiveClassLoader extends DeploymentClassLoader {
 	private static final String WEB_ARCHIVE_PREFIX = "WEB-INF/classes/";
 	private static final String EMPTY_PREFIX = "";
 	private final Archive archive;
 	private final String archivePrefix;
 
 	public ArchiveClassLoader(ClassLoader classLoader, Archive archive) {
-		super( new URL[] { }, classLoader );
+		this( classLoader, archive, false );
+	}
+
+	public ArchiveClassLoader(ClassLoader classLoader, Archive archive, boolean isolated) {
+		super( classLoader, isolated );
 		this.archive = archive;
 		if ( archive instanceof WebArchive ) {
 			archivePrefix = WEB_ARCHIVE_PREFIX;
@@ -36,12 +41,14 @@ public class ArchiveClassLoader extends URLClassLoader {
 		}
 	}
 
-	public InputStream getResourceAsStream(String name) {
-		if ( archive.get( archivePrefix + name ) != null ) {
+	@Override
+	protected InputStream openEntry(String name) {
+		Node node = archive.get( archivePrefix + name );
+		if ( node != null && node.getAsset() != null ) {
 			return loadFromArchive( archivePrefix + name );
 		}
 		else {
-			return super.getResourceAsStream( name );
+			return null;
 		}
 	}
 
@@ -55,6 +62,9 @@ public class ArchiveClassLoader extends URLClassLoader {
 		else if ( asset instanceof ByteArrayAsset ) {
 			in = asset.openStream();
 		}
+		else if ( asset instanceof ClassAsset || asset instanceof ClassLoaderAsset ) {
+			in = asset.openStream();
+		}
 		else {
 			throw new RuntimeException( "Unsupported asset type " + asset.toString() );
 		}
@@ -6,6 +6,11 @@
  */
 package org.hibernate.validator.tck.arquillian;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URLClassLoader;
+
 import org.jboss.arquillian.container.spi.ConfigurationException;
 import org.jboss.arquillian.container.spi.client.container.ContainerConfiguration;
 import org.jboss.arquillian.container.spi.client.container.DeployableContainer;
@@ -22,7 +27,12 @@ import org.jboss.shrinkwrap.descriptor.api.Descriptor;
  * @author Hardy Ferentschik
  */
 public class BeanValidationLocalContainer implements ContainerConfiguration, DeployableContainer {
+
 	private ClassLoader originalContextClassLoader;
+	private URLClassLoader deploymentClassLoader;
+	private String deploymentName;
+	private ClassLoaderLeakDetector classLoaderLeakDetector;
+	private BeanValidationLocalContainerConfiguration configuration = new BeanValidationLocalContainerConfiguration();
 
 	@Override
 	public Class getConfigurationClass() {
@@ -31,6 +41,21 @@ public class BeanValidationLocalContainer implements ContainerConfiguration, Dep
 
 	@Override
 	public void setup(ContainerConfiguration configuration) {
+		this.configuration = (BeanValidationLocalContainerConfiguration) configuration;
+
+		if ( this.configuration.isClassLoaderLeakDetection() ) {
+			String heapDumpDirectory = this.configuration.getLeakHeapDumpDirectory();
+			classLoaderLeakDetector = new ClassLoaderLeakDetector(
+					heapDumpDirectory != null ? new File( heapDumpDirectory ) : null
+			);
+		}
+		else {
+			classLoaderLeakDetector = null;
+		}
+	}
+
+	public BeanValidationLocalContainerConfiguration getConfiguration() {
+		return configuration;
 	}
 
 	@Override
@@ -43,25 +68,98 @@ public class BeanValidationLocalContainer implements ContainerConfiguration, Dep
 
 	@Override
 	public ProtocolDescription getDefaultProtocol() {
-		return new ProtocolDescription( "Local" );
+		return new ProtocolDescription( configuration.isClassLoaderIsolation() ? IsolatedLocalProtocol.NAME : "Local" );
 	}
 
 	@Override
 	public ProtocolMetaData deploy(Archive archive) throws DeploymentException {
+		Runnable endDeploymentEvent = DeploymentEvents.beginDeployment( archive.getName() );
+
 		originalContextClassLoader = Thread.currentThread().getContextClassLoader();
 		ArchiveClassLoader archiveClassLoader = new ArchiveClassLoader(
 				originalContextClassLoader,
-				archive
+				archive,
+				configuration.isClassLoaderIsolation()
 		);
-		Thread.currentThread().setContextClassLoader( archiveClassLoader );
+		deploy( archive.getName(), archiveClassLoader );
+
+		endDeploymentEvent.run();
 		return new ProtocolMetaData();
 	}
 
+	/**
+	 * Deploys an archive previously exported to disk, without assembling it in memory.
+	 *
+	 * @param exportedArchive the exported web archive
+	 *
+	 * @throws DeploymentException in case the archive cannot be opened
+	 */
+	public void deploy(File exportedArchive) throws DeploymentException {
+		Runnable endDeploymentEvent = DeploymentEvents.beginDeployment( exportedArchive.getName() );
+
+		originalContextClassLoader = Thread.currentThread().getContextClassLoader();
+		try {
+			deploy( exportedArchive.getName(), new ExportedArchiveClassLoader( originalContextClassLoader, exportedArchive, configuration.isClassLoaderIsolation() ) );
+		}
+		catch ( IOException e ) {
+			throw new DeploymentException( "Unable to open exported archive " + exportedArchive, e );
+		}
+
+		endDeploymentEvent.run();
+	}
+
 	@Override
 	public void undeploy(Archive archive) throws DeploymentException {
+		undeploy();
+	}
+
+	/**
+	 * Undeploys an archive deployed via {@link #deploy(File)}.
+	 *
+	 * @param exportedArchive the exported web archive
+	 *
+	 * @throws DeploymentException in case the archive cannot be closed
+	 */
+	public void undeploy(File exportedArchive) throws DeploymentException {
+		undeploy();
+	}
+
+	private void deploy(String name, URLClassLoader classLoader) {
+		deploymentName = name;
+		deploymentClassLoader = classLoader;
+		Thread.currentThread().setContextClassLoader( classLoader );
+	}
+
+	private void undeploy() throws DeploymentException {
 		if ( originalContextClassLoader != null ) {
 			Thread.currentThread().setContextClassLoader( originalContextClassLoader );
 		}
+
+		if ( deploymentClassLoader == null ) {
+			return;
+		}
+
+		WeakReference<URLClassLoader> undeployedClassLoader = new WeakReference<>( deploymentClassLoader );
+		try {
+			deploymentClassLoader.close();
+		}
+		catch ( IOException e ) {
+			throw new DeploymentException( "Unable to close the deployment class loader", e );
+		}
+		finally {
+			deploymentClassLoader = null;
+		}
+
+		if ( classLoaderLeakDetector != null ) {
+			classLoaderLeakDetector.check( deploymentName, undeployedClassLoader );
+		}
+	}
+
+	/**
+	 * @return the leak detector or {@code null} if the class loader leak detection is disabled
+	 */
+	public ClassLoaderLeakDetector getClassLoaderLeakDetector() {
+		return classLoaderLeakDetector;
 	}
 
 	@Override
@@ -76,5 +174,3 @@ public class BeanValidationLocalContainer implements ContainerConfiguration, Dep
 	public void validate() throws ConfigurationException {
 	}
 }
-
-
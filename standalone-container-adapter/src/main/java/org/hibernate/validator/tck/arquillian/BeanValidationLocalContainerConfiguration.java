@@ -6,6 +6,8 @@
  */
 package org.hibernate.validator.tck.arquillian;
 
+import java.io.File;
+
 import org.jboss.arquillian.container.spi.ConfigurationException;
 import org.jboss.arquillian.container.spi.client.container.ContainerConfiguration;
 
@@ -14,9 +16,117 @@ import org.jboss.arquillian.container.spi.client.container.ContainerConfiguratio
  */
 public class BeanValidationLocalContainerConfiguration implements ContainerConfiguration {
 
+	/**
+	 * Name of the system property specifying the directory of the exported test archives.
+	 */
+	public static final String EXPORTED_ARCHIVES_DIRECTORY = "exportedArchivesDirectory";
+
+	/**
+	 * Name of the system property enabling the isolation of the deployments.
+	 */
+	public static final String CLASS_LOADER_ISOLATION = "classLoaderIsolation";
+
+	/**
+	 * Name of the system property enabling the class loader leak detection.
+	 */
+	public static final String CLASS_LOADER_LEAK_DETECTION = "classLoaderLeakDetection";
+
+	/**
+	 * Name of the system property specifying the directory to write heap dumps to in case of a class loader leak.
+	 */
+	public static final String LEAK_HEAP_DUMP_DIRECTORY = "leakHeapDumpDirectory";
+
+	/**
+	 * Directory containing the test archives exported as {@code <test class name>.war}, may be {@code null}.
+	 */
+	private String exportedArchivesDirectory;
+
+	/**
+	 * Whether the classes of each deployment are defined by its own class loader, with the test methods being executed
+	 * on an instance of the test class loaded by this class loader.
+	 */
+	private boolean classLoaderIsolation;
+
+	/**
+	 * Whether to check that the class loader of each deployment can be collected after undeploying it. Implies
+	 * {@link #classLoaderIsolation}, as the classes of non-isolated deployments are loaded by the parent class loader.
+	 */
+	private boolean classLoaderLeakDetection;
+
+	/**
+	 * Directory to write heap dumps to in case of a class loader leak, may be {@code null}.
+	 */
+	private String leakHeapDumpDirectory;
+
+	/**
+	 * Creates a configuration based on the system properties, as used when running outside of Arquillian.
+	 *
+	 * @return a configuration based on the system properties
+	 */
+	public static BeanValidationLocalContainerConfiguration fromSystemProperties() {
+		BeanValidationLocalContainerConfiguration configuration = new BeanValidationLocalContainerConfiguration();
+		configuration.setExportedArchivesDirectory( System.getProperty( EXPORTED_ARCHIVES_DIRECTORY ) );
+		configuration.setClassLoaderIsolation( Boolean.getBoolean( CLASS_LOADER_ISOLATION ) );
+		configuration.setClassLoaderLeakDetection( Boolean.getBoolean( CLASS_LOADER_LEAK_DETECTION ) );
+		configuration.setLeakHeapDumpDirectory( System.getProperty( LEAK_HEAP_DUMP_DIRECTORY ) );
+		return configuration;
+	}
+
+	public String getExportedArchivesDirectory() {
+		return exportedArchivesDirectory;
+	}
+
+	public void setExportedArchivesDirectory(String exportedArchivesDirectory) {
+		this.exportedArchivesDirectory = exportedArchivesDirectory;
+	}
+
+	public boolean isClassLoaderIsolation() {
+		return classLoaderIsolation || classLoaderLeakDetection;
+	}
+
+	public void setClassLoaderIsolation(boolean classLoaderIsolation) {
+		this.classLoaderIsolation = classLoaderIsolation;
+	}
+
+	public boolean isClassLoaderLeakDetection() {
+		return classLoaderLeakDetection;
+	}
+
+	public void setClassLoaderLeakDetection(boolean classLoaderLeakDetection) {
+		this.classLoaderLeakDetection = classLoaderLeakDetection;
+	}
+
+	public String getLeakHeapDumpDirectory() {
+		return leakHeapDumpDirectory;
+	}
+
+	public void setLeakHeapDumpDirectory(String leakHeapDumpDirectory) {
+		this.leakHeapDumpDirectory = leakHeapDumpDirectory;
+	}
+
+	/**
+	 * Returns the exported archive for the given test class.
+	 *
+	 * @param testClass the test class
+	 *
+	 * @return the exported archive or {@code null} if no archive has been exported for the given test class
+	 */
+	public File getExportedArchive(Class<?> testClass) {
+		if ( exportedArchivesDirectory == null ) {
+			return null;
+		}
+
+		File exportedArchive = new File( exportedArchivesDirectory, testClass.getName() + ".war" );
+		return exportedArchive.isFile() ? exportedArchive : null;
+	}
+
 	@Override
 	public void validate() throws ConfigurationException {
+		if ( exportedArchivesDirectory != null && !new File( exportedArchivesDirectory ).isDirectory() ) {
+			throw new ConfigurationException( "The exported archives directory " + exportedArchivesDirectory + " does not exist" );
+		}
+		if ( leakHeapDumpDirectory != null && !new File( leakHeapDumpDirectory ).isDirectory() ) {
+			throw new ConfigurationException( "The heap dump directory " + leakHeapDumpDirectory + " does not exist" );
+		}
 	}
 }
-
-
@@ -7,6 +7,7 @@
 package org.hibernate.validator.tck.arquillian;
 
 import org.jboss.arquillian.container.spi.client.container.DeployableContainer;
+import org.jboss.arquillian.container.test.spi.client.protocol.Protocol;
 import org.jboss.arquillian.core.spi.LoadableExtension;
 
 /**
@@ -18,6 +19,7 @@ public class BeanValidationLocalContainerExtension implements LoadableExtension
 	public void register(ExtensionBuilder builder)
 	{
 		builder.service(DeployableContainer.class, BeanValidationLocalContainer.class);
+		builder.service(Protocol.class, IsolatedLocalProtocol.class);
 	}
 }
 
@@ -0,0 +1,137 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * Checks whether the class loader of an undeployed archive can be garbage collected.
+ * <p>
+ * Validation providers caching metadata keyed by classes or class loaders may keep the class loader of a deployment
+ * reachable. After undeploying, the garbage collector is triggered a few times and, if the class loader is still
+ * reachable, a report is logged containing the shortest path from a GC root to it found by the
+ * {@link RetentionPathFinder}. Optionally a heap dump is written, allowing to inspect all the paths to the GC roots.
+ * <p>
+ * The check is only meaningful for isolated deployments, as otherwise the classes of the archive are loaded by the
+ * parent class loader.
+ */
+public class ClassLoaderLeakDetector {
+
+	private static final Logger log = Logger.getLogger( ClassLoaderLeakDetector.class.getName() );
+
+	private static final int MAX_GC_ATTEMPTS = 10;
+
+	private static final long GC_WAIT_MILLIS = 100;
+
+	private final File heapDumpDirectory;
+
+	private final List<String> leakedDeployments = new ArrayList<>();
+
+	/**
+	 * @param heapDumpDirectory the directory to write heap dumps to in case of a leak, may be {@code null}
+	 */
+	public ClassLoaderLeakDetector(File heapDumpDirectory) {
+		this.heapDumpDirectory = heapDumpDirectory;
+	}
+
+	/**
+	 * Checks whether the given class loader becomes unreachable. The caller must not hold any strong reference to the
+	 * class loader.
+	 *
+	 * @param deploymentName the name of the undeployed archive
+	 * @param classLoader a weak reference to the class loader of the undeployed archive
+	 *
+	 * @return {@code true} if the class loader has been collected, {@code false} if it leaked
+	 */
+	public boolean check(String deploymentName, WeakReference<? extends ClassLoader> classLoader) {
+		if ( isCollected( classLoader ) ) {
+			return true;
+		}
+
+		leakedDeployments.add( deploymentName );
+		log.warning( createReport( deploymentName, classLoader.get() ) );
+
+		if ( heapDumpDirectory != null ) {
+			dumpHeap( new File( heapDumpDirectory, "leaked-" + deploymentName + ".hprof" ) );
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return the names of all the deployments whose class loader leaked so far
+	 */
+	public List<String> getLeakedDeployments() {
+		return leakedDeployments;
+	}
+
+	private static boolean isCollected(Reference<?> reference) {
+		for ( int i = 0; i < MAX_GC_ATTEMPTS && reference.get() != null; i++ ) {
+			System.gc();
+			System.runFinalization();
+			try {
+				Thread.sleep( GC_WAIT_MILLIS );
+			}
+			catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return reference.get() == null;
+	}
+
+	private static String createReport(String deploymentName, ClassLoader classLoader) {
+		StringBuilder report = new StringBuilder( "The class loader " )
+				.append( classLoader )
+				.append( " of deployment " )
+				.append( deploymentName )
+				.append( " is still reachable after undeploying it." );
+
+		if ( classLoader == null ) {
+			return report.toString();
+		}
+
+		List<String> path = new RetentionPathFinder( classLoader ).findPath();
+		if ( path.isEmpty() ) {
+			report.append( "\n\tNo path from the static fields of the parent class loaders or from the live threads found." );
+		}
+		else {
+			report.append( "\n\tGC root: " ).append( path.get( 0 ) );
+			for ( String step : path.subList( 1, path.size() ) ) {
+				report.append( "\n\t\t-> " ).append( step );
+			}
+		}
+
+		report.append( "\n\tUse a heap dump to analyze the other paths to the GC roots." );
+
+		return report.toString();
+	}
+
+	private static void dumpHeap(File heapDumpFile) {
+		try {
+			if ( heapDumpFile.exists() && !heapDumpFile.delete() ) {
+				throw new IOException( "Unable to delete existing heap dump " + heapDumpFile );
+			}
+			ManagementFactory.getPlatformMXBean( HotSpotDiagnosticMXBean.class )
+					.dumpHeap( heapDumpFile.getAbsolutePath(), true );
+			log.warning( "Heap dump written to " + heapDumpFile.getAbsolutePath() );
+		}
+		catch ( IOException | RuntimeException | LinkageError e ) {
+			log.log( Level.WARNING, "Unable to write heap dump " + heapDumpFile, e );
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base class of the class loaders serving the content of the {@code WEB-INF/classes} directory of a deployed archive.
+ * <p>
+ * If the deployment is isolated, the classes contained in the archive are defined by this class loader instead of being
+ * loaded by the parent class loader, i.e. each deployment gets its own {@code Class} instances, as in a Java EE
+ * container. The parent class loader is only asked for the classes not contained in the archive and for the classes
+ * of the {@code java} and {@code javax} packages. The test classes added via {@link #addTestClass(Class)} are defined
+ * by this class loader as well, as if they were contained in the archive.
+ */
+public abstract class DeploymentClassLoader extends URLClassLoader {
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	private final boolean isolated;
+
+	private final Set<String> testClassNames = ConcurrentHashMap.newKeySet();
+
+	protected DeploymentClassLoader(ClassLoader parent, boolean isolated) {
+		super( new URL[] { }, parent );
+		this.isolated = isolated;
+	}
+
+	/**
+	 * Opens an entry of the archive.
+	 *
+	 * @param name the name of the entry, relative to the {@code WEB-INF/classes} directory
+	 *
+	 * @return the content of the entry or {@code null} if the archive does not contain it
+	 */
+	protected abstract InputStream openEntry(String name);
+
+	/**
+	 * @return whether the classes of the archive are defined by this class loader
+	 */
+	public boolean isIsolated() {
+		return isolated;
+	}
+
+	/**
+	 * Makes an isolated class loader define the given test class, its nested classes and its superclasses from the
+	 * same code source, like the in-container protocols adding the test class to the deployment. The class files are
+	 * read from the parent class loader.
+	 *
+	 * @param testClass the test class executed within the deployment
+	 */
+	public void addTestClass(Class<?> testClass) {
+		CodeSource codeSource = testClass.getProtectionDomain().getCodeSource();
+		for ( Class<?> clazz = testClass;
+				clazz != null && Objects.equals( codeSource, clazz.getProtectionDomain().getCodeSource() );
+				clazz = clazz.getSuperclass() ) {
+			testClassNames.add( clazz.getName() );
+		}
+	}
+
+	@Override
+	public InputStream getResourceAsStream(String name) {
+		InputStream entry = openEntry( name );
+		return entry != null ? entry : super.getResourceAsStream( name );
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		if ( !isolated || name.startsWith( "java." ) || name.startsWith( "javax." ) ) {
+			return super.loadClass( name, resolve );
+		}
+
+		synchronized ( getClassLoadingLock( name ) ) {
+			Class<?> clazz = findLoadedClass( name );
+			if ( clazz == null ) {
+				clazz = defineArchiveClass( name );
+			}
+			if ( clazz == null ) {
+				return super.loadClass( name, resolve );
+			}
+			if ( resolve ) {
+				resolveClass( clazz );
+			}
+			return clazz;
+		}
+	}
+
+	private Class<?> defineArchiveClass(String name) throws ClassNotFoundException {
+		String classFileName = name.replace( '.', '/' ) + CLASS_FILE_SUFFIX;
+		InputStream entry = openEntry( classFileName );
+		if ( entry == null && isTestClass( name ) && getParent() != null ) {
+			entry = getParent().getResourceAsStream( classFileName );
+		}
+		if ( entry == null ) {
+			return null;
+		}
+
+		byte[] classFile;
+		try ( InputStream in = entry ) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ( ( read = in.read( buffer ) ) != -1 ) {
+				out.write( buffer, 0, read );
+			}
+			classFile = out.toByteArray();
+		}
+		catch ( IOException e ) {
+			throw new ClassNotFoundException( "Unable to read the class file of " + name, e );
+		}
+
+		int lastDot = name.lastIndexOf( '.' );
+		if ( lastDot > 0 ) {
+			String packageName = name.substring( 0, lastDot );
+			if ( getPackage( packageName ) == null ) {
+				try {
+					definePackage( packageName, null, null, null, null, null, null, null );
+				}
+				catch ( IllegalArgumentException e ) {
+					// defined concurrently
+				}
+			}
+		}
+
+		return defineClass( name, classFile, 0, classFile.length );
+	}
+
+	private boolean isTestClass(String name) {
+		int nestedClassSeparator = name.indexOf( '$' );
+		return testClassNames.contains( nestedClassSeparator > 0 ? name.substring( 0, nestedClassSeparator ) : name );
+	}
+}
@@ -0,0 +1,78 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Emits the JFR events of the deployments to the {@link BeanValidationLocalContainer}. As for the other JFR events of
+ * the TCK harness, the events are only emitted if the system property <i>jfrEvents</i> is set to {@code true}, the JVM
+ * supports JFR and the <i>beanvalidation-tck-jfr-events</i> artifact is on the classpath. The entry point of that
+ * artifact is invoked reflectively, so this adapter depends neither on it nor on the TCK tests.
+ */
+final class DeploymentEvents {
+
+	/**
+	 * Name of the system property for enabling the JFR events.
+	 */
+	private static final String JFR_EVENTS = "jfrEvents";
+
+	private static final String JFR_EVENTS_CLASS = "org.hibernate.beanvalidation.tck.jfr.JfrEvents";
+
+	/**
+	 * The method of the JFR events artifact beginning the event of a deployment, {@code null} if the events are
+	 * disabled or JFR is not available.
+	 */
+	private static final Method BEGIN_DEPLOYMENT = Boolean.getBoolean( JFR_EVENTS ) ? loadBeginDeployment() : null;
+
+	private static final Runnable NO_OP = () -> { };
+
+	private DeploymentEvents() {
+	}
+
+	/**
+	 * Begins the event of the deployment of an archive.
+	 *
+	 * @param deploymentName the name of the deployed archive
+	 *
+	 * @return an action ending the event, to be run once the archive has been deployed
+	 */
+	static Runnable beginDeployment(String deploymentName) {
+		if ( BEGIN_DEPLOYMENT == null ) {
+			return NO_OP;
+		}
+
+		try {
+			return (Runnable) BEGIN_DEPLOYMENT.invoke( null, deploymentName );
+		}
+		catch ( InvocationTargetException e ) {
+			Throwable cause = e.getCause();
+			if ( cause instanceof RuntimeException ) {
+				throw (RuntimeException) cause;
+			}
+			if ( cause instanceof Error ) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException( cause );
+		}
+		catch ( IllegalAccessException e ) {
+			throw new IllegalStateException( e );
+		}
+	}
+
+	private static Method loadBeginDeployment() {
+		try {
+			Class.forName( "jdk.jfr.Event" );
+			return Class.forName( JFR_EVENTS_CLASS, true, DeploymentEvents.class.getClassLoader() )
+					.getMethod( "beginDeployment", String.class );
+		}
+		catch ( ClassNotFoundException | NoSuchMethodException | LinkageError e ) {
+			return null;
+		}
+	}
+}
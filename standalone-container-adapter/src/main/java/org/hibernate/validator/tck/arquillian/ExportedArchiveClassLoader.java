@@ -0,0 +1,58 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Class loader serving the resources of a web archive previously exported to disk (e.g. by {@code ArtifactDumper}).
+ * <p>
+ * The entries are read on demand via {@link ZipFile}, so the archive never needs to be assembled in memory.
+ */
+public class ExportedArchiveClassLoader extends DeploymentClassLoader {
+	private static final String WEB_ARCHIVE_PREFIX = "WEB-INF/classes/";
+	private final ZipFile archive;
+
+	public ExportedArchiveClassLoader(ClassLoader classLoader, File archive) throws IOException {
+		this( classLoader, archive, false );
+	}
+
+	public ExportedArchiveClassLoader(ClassLoader classLoader, File archive, boolean isolated) throws IOException {
+		super( classLoader, isolated );
+		this.archive = new ZipFile( archive );
+	}
+
+	@Override
+	protected InputStream openEntry(String name) {
+		ZipEntry entry = archive.getEntry( WEB_ARCHIVE_PREFIX + name );
+		if ( entry != null && !entry.isDirectory() ) {
+			try {
+				return archive.getInputStream( entry );
+			}
+			catch ( IOException e ) {
+				throw new RuntimeException( "Unable to read " + entry.getName() + " from " + archive.getName(), e );
+			}
+		}
+		else {
+			return null;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			archive.close();
+		}
+		finally {
+			super.close();
+		}
+	}
+}
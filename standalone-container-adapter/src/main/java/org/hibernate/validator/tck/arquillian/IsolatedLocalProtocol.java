@@ -0,0 +1,52 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian;
+
+import org.jboss.arquillian.container.spi.client.protocol.ProtocolDescription;
+import org.jboss.arquillian.container.spi.client.protocol.metadata.ProtocolMetaData;
+import org.jboss.arquillian.container.test.spi.ContainerMethodExecutor;
+import org.jboss.arquillian.container.test.spi.client.deployment.DeploymentPackager;
+import org.jboss.arquillian.container.test.spi.client.protocol.Protocol;
+import org.jboss.arquillian.container.test.spi.client.protocol.ProtocolConfiguration;
+import org.jboss.arquillian.container.test.spi.command.CommandCallback;
+
+/**
+ * A variant of the {@code Local} protocol used for isolated deployments: the test methods are executed in the current
+ * JVM, but on an instance of the test class loaded by the class loader of the deployment.
+ *
+ * @see IsolatedTestExecution
+ */
+public class IsolatedLocalProtocol implements Protocol<IsolatedLocalProtocol.Configuration> {
+
+	public static final String NAME = "Local Isolated";
+
+	@Override
+	public Class<Configuration> getProtocolConfigurationClass() {
+		return Configuration.class;
+	}
+
+	@Override
+	public ProtocolDescription getDescription() {
+		return new ProtocolDescription( NAME );
+	}
+
+	@Override
+	public DeploymentPackager getPackager() {
+		return ( testDeployment, processors ) -> testDeployment.getApplicationArchive();
+	}
+
+	@Override
+	public ContainerMethodExecutor getExecutor(Configuration configuration, ProtocolMetaData metaData, CommandCallback callback) {
+		return testMethodExecutor -> IsolatedTestExecution.execute(
+				testMethodExecutor,
+				Thread.currentThread().getContextClassLoader()
+		);
+	}
+
+	public static class Configuration implements ProtocolConfiguration {
+	}
+}
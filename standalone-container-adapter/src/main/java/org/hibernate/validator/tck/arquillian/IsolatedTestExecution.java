@@ -0,0 +1,177 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.UnaryOperator;
+
+import org.jboss.arquillian.test.spi.TestMethodExecutor;
+import org.jboss.arquillian.test.spi.TestResult;
+import org.testng.IHookCallBack;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+/**
+ * Executes a test method on a new instance of the test class loaded by the class loader of an isolated deployment,
+ * as the Arquillian protocols do within a Java EE container. The test then works with the classes defined by the
+ * deployment rather than with the ones of the test instance created by TestNG.
+ * <p>
+ * As for a remote execution, an exception thrown by the test method is only recorded in the returned result; it is up
+ * to the test class to propagate it to TestNG, e.g. to check it against the expected exceptions of the test method.
+ * The recorded exception is a serialized copy resolved against the parent class loader, so that the test results kept
+ * by TestNG do not keep the deployment reachable.
+ * <p>
+ * As the TestNG callback of the test method is not invoked, the instrumentation the test class registers for it (e.g.
+ * the watchdog failing hanging tests) is applied to the invocation on the isolated instance instead.
+ */
+final class IsolatedTestExecution {
+
+	/**
+	 * Name of the attribute of the TestNG result holding the instrumentation of the test method invocation, see
+	 * {@code AbstractTCKTest.INSTRUMENTATION_ATTRIBUTE}.
+	 */
+	private static final String INSTRUMENTATION_ATTRIBUTE = "org.hibernate.beanvalidation.tck.instrumentation";
+
+	private IsolatedTestExecution() {
+	}
+
+	static TestResult execute(TestMethodExecutor testMethodExecutor, ClassLoader deploymentClassLoader) {
+		long start = System.currentTimeMillis();
+		try {
+			Method method = testMethodExecutor.getMethod();
+			if ( method.getParameterTypes().length > 0 ) {
+				throw new IllegalStateException( "Test methods with parameters are not supported in isolated deployments: " + method );
+			}
+
+			Class<?> clientTestClass = testMethodExecutor.getInstance().getClass();
+			if ( deploymentClassLoader instanceof DeploymentClassLoader ) {
+				( (DeploymentClassLoader) deploymentClassLoader ).addTestClass( clientTestClass );
+			}
+
+			Class<?> testClass = Class.forName( clientTestClass.getName(), true, deploymentClassLoader );
+			Object testInstance = testClass.getConstructor().newInstance();
+			Throwable failure = invoke( getTestMethod( testClass, method.getName() ), testInstance );
+			if ( failure != null ) {
+				return TestResult.failed( detach( failure, deploymentClassLoader.getParent() ) )
+						.setStart( start )
+						.setEnd( System.currentTimeMillis() );
+			}
+
+			return TestResult.passed().setStart( start ).setEnd( System.currentTimeMillis() );
+		}
+		catch ( Exception | LinkageError e ) {
+			return TestResult.failed( detach( e, deploymentClassLoader.getParent() ) )
+					.setStart( start )
+					.setEnd( System.currentTimeMillis() );
+		}
+	}
+
+	/**
+	 * Invokes the given test method, applying the instrumentation registered in the current TestNG result if any.
+	 *
+	 * @return the exception thrown by the test method or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	private static Throwable invoke(Method testMethod, Object testInstance) throws IllegalAccessException {
+		ITestResult testResult = Reporter.getCurrentTestResult();
+		UnaryOperator<IHookCallBack> instrumentation = testResult != null
+				? (UnaryOperator<IHookCallBack>) testResult.getAttribute( INSTRUMENTATION_ATTRIBUTE )
+				: null;
+
+		if ( instrumentation == null ) {
+			try {
+				testMethod.invoke( testInstance );
+				return null;
+			}
+			catch ( InvocationTargetException e ) {
+				return e.getCause();
+			}
+		}
+
+		IHookCallBack invocation = new IHookCallBack() {
+
+			@Override
+			public void runTestMethod(ITestResult result) {
+				try {
+					testMethod.invoke( testInstance );
+				}
+				catch ( InvocationTargetException e ) {
+					result.setThrowable( e.getCause() );
+				}
+				catch ( IllegalAccessException e ) {
+					result.setThrowable( e );
+				}
+			}
+
+			@Override
+			public Object[] getParameters() {
+				return new Object[0];
+			}
+		};
+
+		// the exception is reported via the result returned to Arquillian, which only sets it on the TestNG result
+		// if the test failed
+		instrumentation.apply( invocation ).runTestMethod( testResult );
+		Throwable failure = testResult.getThrowable();
+		testResult.setThrowable( null );
+		return failure;
+	}
+
+	/**
+	 * Returns the test method with the given name, which may be private as TestNG also invokes private methods.
+	 */
+	private static Method getTestMethod(Class<?> testClass, String name) throws NoSuchMethodException {
+		for ( Class<?> clazz = testClass; clazz != null; clazz = clazz.getSuperclass() ) {
+			try {
+				Method method = clazz.getDeclaredMethod( name );
+				method.setAccessible( true );
+				return method;
+			}
+			catch ( NoSuchMethodException e ) {
+				// declared by a superclass
+			}
+		}
+		throw new NoSuchMethodException( testClass.getName() + "." + name + "()" );
+	}
+
+	/**
+	 * Copies the given throwable via serialization, resolving its classes against the given class loader. The original
+	 * throwable is returned if it cannot be copied.
+	 */
+	private static Throwable detach(Throwable throwable, ClassLoader classLoader) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try ( ObjectOutputStream out = new ObjectOutputStream( bytes ) ) {
+				out.writeObject( throwable );
+			}
+
+			try ( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) {
+				@Override
+				protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+					try {
+						return Class.forName( desc.getName(), false, classLoader );
+					}
+					catch ( ClassNotFoundException e ) {
+						return super.resolveClass( desc );
+					}
+				}
+			} ) {
+				return (Throwable) in.readObject();
+			}
+		}
+		catch ( IOException | ClassNotFoundException | RuntimeException e ) {
+			return throwable;
+		}
+	}
+}
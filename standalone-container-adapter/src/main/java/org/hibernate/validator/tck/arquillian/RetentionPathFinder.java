@@ -0,0 +1,231 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * Searches the shortest chain of strong or soft references keeping a class loader reachable, by walking the object graph
+ * via reflection. The walk starts from the static fields of the classes loaded by the parent class loaders of the
+ * given class loader and from all live threads (including their context class loader and thread locals).
+ * <p>
+ * The class loader is considered reachable via a path ending at the class loader itself, at a class defined by it or
+ * at an instance of such a class. As the stack trace of a throwable references the classes of its frames via a field
+ * hidden from reflection, a second walk matches the frames of the throwables by name against the classes defined by
+ * the class loader if no path has been found otherwise. As the classes of the parent class loaders have the same
+ * names, such a path may not be accurate. Paths starting at classes of the JDK (which cannot be enumerated) are only found if
+ * such a class is reached from one of the other roots; a heap dump is needed to analyze those.
+ */
+class RetentionPathFinder {
+
+	private static final int MAX_VISITED_OBJECTS = 1_000_000;
+
+	private final ClassLoader classLoader;
+
+	/**
+	 * The step via which each visited object has been reached, {@code null} for the roots.
+	 */
+	private final Map<Object, Step> steps = new IdentityHashMap<>();
+
+	private final Deque<Object> queue = new ArrayDeque<>();
+
+	private final Map<String, Class<?>> definedClasses = new HashMap<>();
+
+	RetentionPathFinder(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+		for ( Class<?> clazz : getLoadedClasses( classLoader ) ) {
+			definedClasses.put( clazz.getName(), clazz );
+		}
+	}
+
+	/**
+	 * @return the path from a GC root to the class loader, one element per line, or an empty list if no path has been
+	 * found
+	 */
+	List<String> findPath() {
+		List<String> path = findPath( false );
+		return path.isEmpty() ? findPath( true ) : path;
+	}
+
+	private List<String> findPath(boolean includeStackFrames) {
+		steps.clear();
+		queue.clear();
+
+		for ( Thread thread : Thread.getAllStackTraces().keySet() ) {
+			visit( thread, null, "thread \"" + thread.getName() + "\"" );
+		}
+		for ( ClassLoader parent = classLoader.getParent(); parent != null; parent = parent.getParent() ) {
+			for ( Class<?> clazz : getLoadedClasses( parent ) ) {
+				visitStaticFields( clazz, null );
+			}
+		}
+
+		while ( !queue.isEmpty() && steps.size() < MAX_VISITED_OBJECTS ) {
+			Object object = queue.poll();
+			if ( retainsClassLoader( object ) ) {
+				return getPath( object );
+			}
+			visitReferences( object, includeStackFrames );
+		}
+
+		return Collections.emptyList();
+	}
+
+	private boolean retainsClassLoader(Object object) {
+		if ( object == classLoader || object.getClass().getClassLoader() == classLoader ) {
+			return true;
+		}
+		return object instanceof Class && ( (Class<?>) object ).getClassLoader() == classLoader;
+	}
+
+	private void visitReferences(Object object, boolean includeStackFrames) {
+		Class<?> clazz = object.getClass();
+
+		if ( clazz.isArray() ) {
+			if ( !clazz.getComponentType().isPrimitive() ) {
+				for ( int i = 0; i < Array.getLength( object ); i++ ) {
+					visit( Array.get( object, i ), object, "[" + i + "]" );
+				}
+			}
+			return;
+		}
+
+		if ( object instanceof Class ) {
+			visitStaticFields( (Class<?>) object, object );
+		}
+		else if ( includeStackFrames && object instanceof Throwable ) {
+			visitStackFrames( (Throwable) object );
+		}
+
+		for ( Class<?> current = clazz; current != null; current = current.getSuperclass() ) {
+			for ( Field field : getDeclaredFields( current ) ) {
+				if ( Modifier.isStatic( field.getModifiers() ) || field.getType().isPrimitive() ) {
+					continue;
+				}
+				// only soft references keep their referent reachable until the memory gets low
+				if ( current == Reference.class && "referent".equals( field.getName() ) ) {
+					if ( object instanceof SoftReference ) {
+						visit( getValue( field, object ), object, "referent of soft reference" );
+					}
+					continue;
+				}
+				visit( getValue( field, object ), object, field.getName() );
+			}
+		}
+	}
+
+	private void visitStaticFields(Class<?> clazz, Object predecessor) {
+		for ( Field field : getDeclaredFields( clazz ) ) {
+			if ( Modifier.isStatic( field.getModifiers() ) && !field.getType().isPrimitive() ) {
+				visit( getValue( field, null ), predecessor, "static field " + clazz.getName() + "." + field.getName() );
+			}
+		}
+	}
+
+	private void visitStackFrames(Throwable throwable) {
+		for ( StackTraceElement frame : throwable.getStackTrace() ) {
+			Class<?> frameClass = definedClasses.get( frame.getClassName() );
+			if ( frameClass != null ) {
+				visit( frameClass, throwable, "stack frame " + frame );
+			}
+		}
+	}
+
+	private void visit(Object object, Object predecessor, String description) {
+		if ( object == null || steps.containsKey( object ) ) {
+			return;
+		}
+		steps.put( object, new Step( predecessor, description ) );
+		queue.add( object );
+	}
+
+	private List<String> getPath(Object target) {
+		List<String> path = new ArrayList<>();
+		for ( Object object = target; object != null; object = steps.get( object ).predecessor ) {
+			path.add( steps.get( object ).description + " (" + describe( object ) + ")" );
+		}
+		Collections.reverse( path );
+		return path;
+	}
+
+	private String describe(Object object) {
+		if ( object == classLoader ) {
+			return "the class loader of the deployment";
+		}
+		if ( object instanceof Class ) {
+			return "class " + ( (Class<?>) object ).getName();
+		}
+		return object.getClass().getName();
+	}
+
+	private static Field[] getDeclaredFields(Class<?> clazz) {
+		try {
+			return clazz.getDeclaredFields();
+		}
+		catch ( RuntimeException | LinkageError e ) {
+			return new Field[0];
+		}
+	}
+
+	private static Object getValue(Field field, Object object) {
+		try {
+			field.setAccessible( true );
+			return field.get( object );
+		}
+		catch ( RuntimeException | IllegalAccessException | LinkageError e ) {
+			// e.g. fields of JDK classes not accessible on a module-aware JVM
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the classes loaded by the given class loader, read from its private {@code classes} field as there is no
+	 * API for this.
+	 */
+	private static List<Class<?>> getLoadedClasses(ClassLoader classLoader) {
+		try {
+			Field classes = ClassLoader.class.getDeclaredField( "classes" );
+			classes.setAccessible( true );
+			Object loadedClasses = classes.get( classLoader );
+			if ( loadedClasses instanceof Vector ) {
+				@SuppressWarnings("unchecked")
+				Vector<Class<?>> vector = (Vector<Class<?>>) loadedClasses;
+				synchronized ( vector ) {
+					return new ArrayList<>( vector );
+				}
+			}
+		}
+		catch ( RuntimeException | ReflectiveOperationException e ) {
+			// not accessible, only the threads are used as roots
+		}
+		return Collections.emptyList();
+	}
+
+	private static class Step {
+
+		private final Object predecessor;
+		private final String description;
+
+		private Step(Object predecessor, String description) {
+			this.predecessor = predecessor;
+			this.description = description;
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.jboss.arquillian.container.spi.client.container.DeploymentException;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.test.spi.LifecycleMethodExecutor;
+import org.jboss.arquillian.test.spi.TestMethodExecutor;
+import org.jboss.arquillian.test.spi.TestResult;
+import org.jboss.arquillian.test.spi.TestRunnerAdaptor;
+import org.jboss.arquillian.test.spi.event.suite.TestLifecycleEvent;
+import org.jboss.shrinkwrap.api.Archive;
+
+/**
+ * A {@link TestRunnerAdaptor} running the tests in the current JVM without the Arquillian event bus.
+ * <p>
+ * The {@code @Deployment} method of each test class is invoked directly and the resulting archive is deployed to a
+ * {@link BeanValidationLocalContainer}. Test methods are executed as is, there is no protocol involved; only for isolated
+ * deployments they are executed on an instance of the test class loaded by the deployment. The lifecycle method
+ * executors are not invoked: the TestNG integration of Arquillian only passes no-op executors, as TestNG runs the
+ * configuration methods itself.
+ * <p>
+ * If the system property {@value BeanValidationLocalContainerConfiguration#EXPORTED_ARCHIVES_DIRECTORY} points to the
+ * directory of the archives exported by {@code ArtifactDumper}, these archives are deployed instead and the
+ * {@code @Deployment} methods are not invoked at all.
+ *
+ * @see StandaloneTestRunnerListener
+ */
+public class StandaloneTestRunnerAdaptor implements TestRunnerAdaptor {
+
+	private final BeanValidationLocalContainer container;
+
+	private Archive<?> deployedArchive;
+
+	private File deployedExportedArchive;
+
+	public StandaloneTestRunnerAdaptor() {
+		BeanValidationLocalContainerConfiguration configuration = BeanValidationLocalContainerConfiguration.fromSystemProperties();
+		configuration.validate();
+
+		container = new BeanValidationLocalContainer();
+		container.setup( configuration );
+	}
+
+	@Override
+	public void beforeSuite() throws Exception {
+	}
+
+	@Override
+	public void afterSuite() throws Exception {
+	}
+
+	@Override
+	public void beforeClass(Class<?> testClass, LifecycleMethodExecutor executor) throws Exception {
+		File exportedArchive = container.getConfiguration().getExportedArchive( testClass );
+		if ( exportedArchive != null ) {
+			deployedExportedArchive = exportedArchive;
+			container.deploy( deployedExportedArchive );
+		}
+		else {
+			deployedArchive = createDeployment( testClass );
+			container.deploy( deployedArchive );
+		}
+	}
+
+	@Override
+	public void afterClass(Class<?> testClass, LifecycleMethodExecutor executor) throws Exception {
+		if ( deployedExportedArchive != null ) {
+			container.undeploy( deployedExportedArchive );
+			deployedExportedArchive = null;
+		}
+		else if ( deployedArchive != null ) {
+			container.undeploy( deployedArchive );
+			deployedArchive = null;
+		}
+	}
+
+	@Override
+	public void before(Object testInstance, Method testMethod, LifecycleMethodExecutor executor) throws Exception {
+	}
+
+	@Override
+	public void after(Object testInstance, Method testMethod, LifecycleMethodExecutor executor) throws Exception {
+	}
+
+	@Override
+	public TestResult test(TestMethodExecutor testMethodExecutor) throws Exception {
+		if ( container.getConfiguration().isClassLoaderIsolation() ) {
+			return IsolatedTestExecution.execute( testMethodExecutor, Thread.currentThread().getContextClassLoader() );
+		}
+
+		long start = System.currentTimeMillis();
+		try {
+			testMethodExecutor.invoke();
+			return TestResult.passed().setStart( start ).setEnd( System.currentTimeMillis() );
+		}
+		catch ( Throwable t ) {
+			return TestResult.failed( t ).setStart( start ).setEnd( System.currentTimeMillis() );
+		}
+	}
+
+	@Override
+	public <T extends TestLifecycleEvent> void fireCustomLifecycle(T event) throws Exception {
+	}
+
+	@Override
+	public void shutdown() {
+	}
+
+	private static Archive<?> createDeployment(Class<?> testClass) throws DeploymentException {
+		for ( Method method : testClass.getMethods() ) {
+			if ( method.isAnnotationPresent( Deployment.class ) && Modifier.isStatic( method.getModifiers() ) ) {
+				try {
+					return (Archive<?>) method.invoke( null );
+				}
+				catch ( InvocationTargetException e ) {
+					throw new DeploymentException( "Unable to create the deployment of " + testClass.getName(), e.getCause() );
+				}
+				catch ( IllegalAccessException e ) {
+					throw new DeploymentException( "Unable to create the deployment of " + testClass.getName(), e );
+				}
+			}
+		}
+
+		throw new DeploymentException( "No static @Deployment method found on " + testClass.getName() );
+	}
+}
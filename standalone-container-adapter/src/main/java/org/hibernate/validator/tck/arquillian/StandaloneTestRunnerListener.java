@@ -0,0 +1,30 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.validator.tck.arquillian;
+
+import org.jboss.arquillian.test.spi.TestRunnerAdaptorBuilder;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * TestNG listener enabling the fast standalone runner mode.
+ * <p>
+ * When registered (e.g. via the <i>listener</i> property of the Maven Surefire plugin), all tests are run through a
+ * {@link StandaloneTestRunnerAdaptor} instead of the full Arquillian lifecycle.
+ */
+public class StandaloneTestRunnerListener implements ISuiteListener {
+
+	@Override
+	public void onStart(ISuite suite) {
+		TestRunnerAdaptorBuilder.set( new StandaloneTestRunnerAdaptor() );
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		TestRunnerAdaptorBuilder.set( null );
+	}
+}
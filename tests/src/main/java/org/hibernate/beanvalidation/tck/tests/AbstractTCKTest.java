@@ -6,16 +6,25 @@
  */
 package org.hibernate.beanvalidation.tck.tests;
 
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.UnaryOperator;
+
 import javax.validation.Validator;
 import javax.validation.executable.ExecutableValidator;
 
 import org.hibernate.beanvalidation.tck.util.CollectionHelper;
 import org.hibernate.beanvalidation.tck.util.ConstraintViolationAssert;
 import org.hibernate.beanvalidation.tck.util.TestUtil;
+import org.hibernate.beanvalidation.tck.util.TestWatchdog;
 import org.hibernate.beanvalidation.tck.util.ValidationInvocationHandler;
+import org.hibernate.beanvalidation.tck.util.WarmLoop;
+import org.hibernate.beanvalidation.tck.util.jfr.TckEvents;
 import org.hibernate.beanvalidation.tck.util.shrinkwrap.ArchiveBuilder;
 import org.hibernate.beanvalidation.tck.util.shrinkwrap.WebArchiveBuilder;
 import org.jboss.arquillian.testng.Arquillian;
+import org.testng.IHookCallBack;
+import org.testng.ITestResult;
+import org.testng.TestException;
 
 /**
  * @author Marko Bekhta
@@ -23,6 +32,14 @@ import org.jboss.arquillian.testng.Arquillian;
  */
 public abstract class AbstractTCKTest extends Arquillian {
 
+	/**
+	 * Name of the attribute of the TestNG result of the running test method holding the instrumentation of its
+	 * invocation, as {@code UnaryOperator<IHookCallBack>}. Container adapters executing the test method on an instance
+	 * of their own (e.g. loaded by an isolated deployment) instead of invoking the TestNG callback apply it to their
+	 * invocation of the method.
+	 */
+	public static final String INSTRUMENTATION_ATTRIBUTE = "org.hibernate.beanvalidation.tck.instrumentation";
+
 	private Validator validator;
 
 	private ExecutableValidator executableValidator;
@@ -37,7 +54,10 @@ public abstract class AbstractTCKTest extends Arquillian {
 				TestUtil.class,
 				ConstraintViolationAssert.class,
 				CollectionHelper.class,
-				ValidationInvocationHandler.class
+				ValidationInvocationHandler.class,
+				WarmLoop.class,
+				TestWatchdog.class,
+				TckEvents.class
 		);
 
 		// we don't use the Maven features of Shrinkwrap as the TCK might not be run with Maven
@@ -49,9 +69,52 @@ public abstract class AbstractTCKTest extends Arquillian {
 		return webArchiveBuilder;
 	}
 
+	@Override
+	public void run(IHookCallBack callBack, ITestResult testResult) {
+		testResult.setAttribute( INSTRUMENTATION_ATTRIBUTE, (UnaryOperator<IHookCallBack>) AbstractTCKTest::instrument );
+		try {
+			super.run( instrument( callBack ), testResult );
+		}
+		finally {
+			testResult.removeAttribute( INSTRUMENTATION_ATTRIBUTE );
+		}
+		TestWatchdog.failIfTimedOut( testResult );
+		rethrowTestFailure( testResult );
+	}
+
+	/**
+	 * Applies the warm loop and the watchdog to the given invocation of the test method; the watchdog covers the
+	 * repeated invocations of the warm loop too.
+	 */
+	private static IHookCallBack instrument(IHookCallBack callBack) {
+		return TestWatchdog.instrument( WarmLoop.instrument( callBack ) );
+	}
+
+	/**
+	 * Arquillian only records the exception of a test method executed by a protocol (e.g. within an isolated
+	 * deployment) in the test result. TestNG checks the expected exceptions of a test method only if the exception is
+	 * thrown though, so we rethrow it.
+	 */
+	private static void rethrowTestFailure(ITestResult testResult) {
+		Throwable throwable = testResult.getThrowable();
+		if ( throwable instanceof InvocationTargetException ) {
+			throwable = throwable.getCause();
+		}
+
+		if ( throwable instanceof RuntimeException ) {
+			throw (RuntimeException) throwable;
+		}
+		else if ( throwable instanceof Error ) {
+			throw (Error) throwable;
+		}
+		else if ( throwable != null ) {
+			throw new TestException( throwable );
+		}
+	}
+
 	protected Validator getValidator() {
 		if ( validator == null ) {
-			validator = TestUtil.getValidatorUnderTest();
+			validator = TckEvents.instrument( TestUtil.getValidatorUnderTest() );
 		}
 		return validator;
 	}
@@ -0,0 +1,224 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+/**
+ * TestNG listener ordering the test classes based on the results of previous runs, so that failures show up as early
+ * as possible: classes which failed in one of the last {@value #RECENT_FAILURE_RUNS} runs are executed first, the most
+ * recently failed ones first, followed by all other classes sorted by ascending duration. Classes without history are
+ * considered to be the fastest ones. The methods of each class are kept together and in their original order, so
+ * the deployment of each class still happens once.
+ * <p>
+ * Only active if the system property <i>testHistoryFile</i> is set. After the run, the duration of each executed class
+ * (including its configuration methods and thus its deployment) and whether it failed are written to this file, which
+ * is created if it does not exist yet.
+ */
+public class FailFastOrdering implements IMethodInterceptor, IReporter {
+
+	private static final Logger log = Logger.getLogger( FailFastOrdering.class.getName() );
+
+	/**
+	 * Name of the system property setting the history file.
+	 */
+	private static final String HISTORY_FILE = "testHistoryFile";
+
+	private static final int RECENT_FAILURE_RUNS = 3;
+
+	@Override
+	public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+		Path historyFile = getHistoryFile();
+		if ( historyFile == null ) {
+			return methods;
+		}
+
+		Map<String, ClassHistory> history = readHistory( historyFile );
+		Map<String, List<IMethodInstance>> methodsByClass = new LinkedHashMap<>();
+		for ( IMethodInstance method : methods ) {
+			methodsByClass.computeIfAbsent( method.getMethod().getTestClass().getName(), k -> new ArrayList<>() ).add( method );
+		}
+
+		List<String> classes = new ArrayList<>( methodsByClass.keySet() );
+		classes.sort( Comparator.comparing( (String testClass) -> history.getOrDefault( testClass, ClassHistory.UNKNOWN ) ) );
+
+		List<IMethodInstance> orderedMethods = new ArrayList<>( methods.size() );
+		for ( String testClass : classes ) {
+			orderedMethods.addAll( methodsByClass.get( testClass ) );
+		}
+
+		log.info( String.format(
+				"Ordering %d test classes by history, %d of them failed recently",
+				classes.size(),
+				classes.stream().filter( testClass -> history.getOrDefault( testClass, ClassHistory.UNKNOWN ).isRecentlyFailed() ).count()
+		) );
+
+		return orderedMethods;
+	}
+
+	@Override
+	public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+		Path historyFile = getHistoryFile();
+		if ( historyFile == null ) {
+			return;
+		}
+
+		Map<String, Long> durations = new HashMap<>();
+		Map<String, Boolean> failures = new HashMap<>();
+		for ( ISuite suite : suites ) {
+			for ( ISuiteResult suiteResult : suite.getResults().values() ) {
+				ITestContext context = suiteResult.getTestContext();
+				collect( context.getPassedTests().getAllResults(), false, durations, failures );
+				collect( context.getSkippedTests().getAllResults(), false, durations, failures );
+				collect( context.getFailedTests().getAllResults(), true, durations, failures );
+				collect( context.getFailedButWithinSuccessPercentageTests().getAllResults(), false, durations, failures );
+				collect( context.getPassedConfigurations().getAllResults(), false, durations, failures );
+				collect( context.getSkippedConfigurations().getAllResults(), false, durations, failures );
+				collect( context.getFailedConfigurations().getAllResults(), true, durations, failures );
+			}
+		}
+
+		Map<String, ClassHistory> history = new TreeMap<>( readHistory( historyFile ) );
+		for ( Entry<String, Long> duration : durations.entrySet() ) {
+			ClassHistory previous = history.get( duration.getKey() );
+			int runsSinceFailure;
+			if ( failures.get( duration.getKey() ) ) {
+				runsSinceFailure = 0;
+			}
+			else if ( previous == null ) {
+				runsSinceFailure = Integer.MAX_VALUE;
+			}
+			else {
+				runsSinceFailure = previous.runsSinceFailure == Integer.MAX_VALUE ? Integer.MAX_VALUE : previous.runsSinceFailure + 1;
+			}
+			history.put( duration.getKey(), new ClassHistory( duration.getValue(), runsSinceFailure ) );
+		}
+
+		try {
+			writeHistory( historyFile, history );
+		}
+		catch ( IOException e ) {
+			log.log( Level.WARNING, "Unable to write the test history to " + historyFile, e );
+		}
+	}
+
+	private static Path getHistoryFile() {
+		String historyFile = System.getProperty( HISTORY_FILE );
+		return historyFile != null ? Paths.get( historyFile ) : null;
+	}
+
+	private static void collect(Collection<ITestResult> results, boolean failed, Map<String, Long> durations, Map<String, Boolean> failures) {
+		for ( ITestResult result : results ) {
+			String testClass = result.getTestClass().getName();
+			durations.merge( testClass, result.getEndMillis() - result.getStartMillis(), Long::sum );
+			failures.merge( testClass, failed, Boolean::logicalOr );
+		}
+	}
+
+	private static Map<String, ClassHistory> readHistory(Path historyFile) {
+		Map<String, ClassHistory> history = new HashMap<>();
+		if ( !Files.exists( historyFile ) ) {
+			return history;
+		}
+
+		Properties properties = new Properties();
+		try ( Reader reader = Files.newBufferedReader( historyFile, StandardCharsets.UTF_8 ) ) {
+			properties.load( reader );
+		}
+		catch ( IOException e ) {
+			log.log( Level.WARNING, "Unable to read the test history from " + historyFile + ", ignoring it", e );
+			return history;
+		}
+
+		for ( String testClass : properties.stringPropertyNames() ) {
+			String[] values = properties.getProperty( testClass ).split( "," );
+			try {
+				history.put( testClass, new ClassHistory( Long.parseLong( values[0].trim() ), Integer.parseInt( values[1].trim() ) ) );
+			}
+			catch ( NumberFormatException | ArrayIndexOutOfBoundsException e ) {
+				log.warning( "Ignoring invalid test history entry for " + testClass + " in " + historyFile );
+			}
+		}
+
+		return history;
+	}
+
+	private static void writeHistory(Path historyFile, Map<String, ClassHistory> history) throws IOException {
+		if ( historyFile.getParent() != null ) {
+			Files.createDirectories( historyFile.getParent() );
+		}
+
+		try ( PrintWriter writer = new PrintWriter( Files.newBufferedWriter( historyFile, StandardCharsets.UTF_8 ) ) ) {
+			writer.println( "# <test class>=<duration of the last run in ms>,<number of runs since the last failure>" );
+			for ( Entry<String, ClassHistory> entry : history.entrySet() ) {
+				writer.println( entry.getKey() + "=" + entry.getValue().duration + "," + entry.getValue().runsSinceFailure );
+			}
+		}
+	}
+
+	/**
+	 * The outcome of the previous runs of a test class, ordered in the way the classes should be executed.
+	 */
+	private static class ClassHistory implements Comparable<ClassHistory> {
+
+		private static final ClassHistory UNKNOWN = new ClassHistory( 0, Integer.MAX_VALUE );
+
+		private final long duration;
+
+		/**
+		 * 0 if the class failed in the last run, {@link Integer#MAX_VALUE} if it never failed.
+		 */
+		private final int runsSinceFailure;
+
+		private ClassHistory(long duration, int runsSinceFailure) {
+			this.duration = duration;
+			this.runsSinceFailure = runsSinceFailure;
+		}
+
+		private boolean isRecentlyFailed() {
+			return runsSinceFailure < RECENT_FAILURE_RUNS;
+		}
+
+		@Override
+		public int compareTo(ClassHistory other) {
+			if ( isRecentlyFailed() != other.isRecentlyFailed() ) {
+				return isRecentlyFailed() ? -1 : 1;
+			}
+			if ( isRecentlyFailed() && runsSinceFailure != other.runsSinceFailure ) {
+				return Integer.compare( runsSinceFailure, other.runsSinceFailure );
+			}
+			return Long.compare( duration, other.duration );
+		}
+	}
+}
@@ -0,0 +1,228 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retrieves the spec sections asserted by a test method via {@code @SpecAssertion}. As these annotations are not
+ * retained at runtime, they are read from the class file of the test class.
+ */
+public final class SpecSections {
+
+	private static final String SPEC_ASSERTION = "Lorg/jboss/test/audit/annotations/SpecAssertion;";
+
+	private static final String SPEC_ASSERTIONS = "Lorg/jboss/test/audit/annotations/SpecAssertions;";
+
+	private static final Map<Class<?>, Map<String, Set<String>>> SECTIONS_BY_CLASS = new ConcurrentHashMap<>();
+
+	private SpecSections() {
+	}
+
+	/**
+	 * @param method a test method
+	 *
+	 * @return the sections asserted by the given method, in the order of declaration; empty if the method has no spec
+	 * assertions or the class file cannot be read
+	 */
+	public static Set<String> getSpecSections(Method method) {
+		Map<String, Set<String>> sectionsByMethod = SECTIONS_BY_CLASS.computeIfAbsent( method.getDeclaringClass(), SpecSections::readSections );
+		return sectionsByMethod.getOrDefault( method.getName() + getDescriptor( method ), Collections.emptySet() );
+	}
+
+	private static Map<String, Set<String>> readSections(Class<?> clazz) {
+		ClassLoader classLoader = clazz.getClassLoader() != null ? clazz.getClassLoader() : ClassLoader.getSystemClassLoader();
+		try ( InputStream classFile = classLoader.getResourceAsStream( clazz.getName().replace( '.', '/' ) + ".class" ) ) {
+			if ( classFile == null ) {
+				return Collections.emptyMap();
+			}
+			return new ClassFileReader( new DataInputStream( new BufferedInputStream( classFile ) ) ).readSectionsByMethod();
+		}
+		catch ( IOException | RuntimeException e ) {
+			return Collections.emptyMap();
+		}
+	}
+
+	private static String getDescriptor(Method method) {
+		StringBuilder descriptor = new StringBuilder( "(" );
+		for ( Class<?> parameterType : method.getParameterTypes() ) {
+			descriptor.append( getDescriptor( parameterType ) );
+		}
+		return descriptor.append( ')' ).append( getDescriptor( method.getReturnType() ) ).toString();
+	}
+
+	private static String getDescriptor(Class<?> type) {
+		if ( type.isArray() ) {
+			return type.getName().replace( '.', '/' );
+		}
+		if ( !type.isPrimitive() ) {
+			return "L" + type.getName().replace( '.', '/' ) + ";";
+		}
+		// the descriptor of each primitive type is the one-character name of its array type without the leading bracket
+		return type == void.class ? "V" : Array.newInstance( type, 0 ).getClass().getName().substring( 1 );
+	}
+
+	/**
+	 * Reads the {@code @SpecAssertion} sections of all methods of a class file, skipping everything else. See chapter 4
+	 * of the JVM specification for the format.
+	 */
+	private static class ClassFileReader {
+
+		private final DataInputStream in;
+		private final Map<Integer, String> utf8Constants = new HashMap<>();
+
+		private ClassFileReader(DataInputStream in) {
+			this.in = in;
+		}
+
+		private Map<String, Set<String>> readSectionsByMethod() throws IOException {
+			// magic, minor and major version
+			in.skipBytes( 8 );
+			readConstantPool();
+			// access flags, this class, super class
+			in.skipBytes( 6 );
+			in.skipBytes( 2 * in.readUnsignedShort() );
+
+			int fieldCount = in.readUnsignedShort();
+			for ( int i = 0; i < fieldCount; i++ ) {
+				in.skipBytes( 6 );
+				skipAttributes();
+			}
+
+			Map<String, Set<String>> sectionsByMethod = new HashMap<>();
+			int methodCount = in.readUnsignedShort();
+			for ( int i = 0; i < methodCount; i++ ) {
+				in.skipBytes( 2 );
+				String name = utf8Constants.get( in.readUnsignedShort() );
+				String descriptor = utf8Constants.get( in.readUnsignedShort() );
+
+				Set<String> sections = new LinkedHashSet<>();
+				int attributeCount = in.readUnsignedShort();
+				for ( int j = 0; j < attributeCount; j++ ) {
+					String attributeName = utf8Constants.get( in.readUnsignedShort() );
+					int length = in.readInt();
+					if ( "RuntimeInvisibleAnnotations".equals( attributeName ) || "RuntimeVisibleAnnotations".equals( attributeName ) ) {
+						int annotationCount = in.readUnsignedShort();
+						for ( int k = 0; k < annotationCount; k++ ) {
+							readAnnotation( sections );
+						}
+					}
+					else {
+						in.skipBytes( length );
+					}
+				}
+
+				if ( !sections.isEmpty() ) {
+					sectionsByMethod.put( name + descriptor, sections );
+				}
+			}
+
+			return sectionsByMethod;
+		}
+
+		private void readConstantPool() throws IOException {
+			int count = in.readUnsignedShort();
+			for ( int index = 1; index < count; index++ ) {
+				int tag = in.readUnsignedByte();
+				switch ( tag ) {
+					case 1: // Utf8
+						utf8Constants.put( index, in.readUTF() );
+						break;
+					case 7: // Class
+					case 8: // String
+					case 16: // MethodType
+					case 19: // Module
+					case 20: // Package
+						in.skipBytes( 2 );
+						break;
+					case 15: // MethodHandle
+						in.skipBytes( 3 );
+						break;
+					case 3: // Integer
+					case 4: // Float
+					case 9: // Fieldref
+					case 10: // Methodref
+					case 11: // InterfaceMethodref
+					case 12: // NameAndType
+					case 17: // Dynamic
+					case 18: // InvokeDynamic
+						in.skipBytes( 4 );
+						break;
+					case 5: // Long
+					case 6: // Double
+						in.skipBytes( 8 );
+						// takes up two entries
+						index++;
+						break;
+					default:
+						throw new IllegalStateException( "Unknown constant pool tag " + tag );
+				}
+			}
+		}
+
+		private void skipAttributes() throws IOException {
+			int attributeCount = in.readUnsignedShort();
+			for ( int i = 0; i < attributeCount; i++ ) {
+				in.skipBytes( 2 );
+				in.skipBytes( in.readInt() );
+			}
+		}
+
+		/**
+		 * Reads an annotation, adding its section if it is a spec assertion or the sections of its elements if it is
+		 * the container of repeated spec assertions.
+		 */
+		private void readAnnotation(Set<String> sections) throws IOException {
+			String type = utf8Constants.get( in.readUnsignedShort() );
+			int elementCount = in.readUnsignedShort();
+			for ( int i = 0; i < elementCount; i++ ) {
+				String elementName = utf8Constants.get( in.readUnsignedShort() );
+				boolean relevant = ( SPEC_ASSERTION.equals( type ) && "section".equals( elementName ) )
+						|| ( SPEC_ASSERTIONS.equals( type ) && "value".equals( elementName ) );
+				readElementValue( relevant ? sections : null );
+			}
+		}
+
+		private void readElementValue(Set<String> sections) throws IOException {
+			int tag = in.readUnsignedByte();
+			switch ( tag ) {
+				case 's':
+					String value = utf8Constants.get( in.readUnsignedShort() );
+					if ( sections != null ) {
+						sections.add( value );
+					}
+					break;
+				case 'e':
+					in.skipBytes( 4 );
+					break;
+				case '@':
+					readAnnotation( sections != null ? sections : new LinkedHashSet<>() );
+					break;
+				case '[':
+					int valueCount = in.readUnsignedShort();
+					for ( int i = 0; i < valueCount; i++ ) {
+						readElementValue( sections );
+					}
+					break;
+				default:
+					// primitive constants and classes
+					in.skipBytes( 2 );
+			}
+		}
+	}
+}
@@ -0,0 +1,253 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.hibernate.beanvalidation.tck.util.jfr.TckEvents;
+import org.hibernate.beanvalidation.tck.util.jfr.TckEvents.RecordingScope;
+import org.testng.IHookCallBack;
+import org.testng.ITestResult;
+
+/**
+ * Fails test methods which do not complete within the time given by the system property <i>testTimeout</i> (in
+ * seconds), e.g. as the provider under test loops forever, and continues with the remaining tests. Only active if the
+ * property is set.
+ * <p>
+ * Unlike the {@code timeOut} attribute of {@code @Test}, which runs the whole Arquillian lifecycle of the test method
+ * in another thread and thus loses the Arquillian state held in thread locals, only the test method itself is executed
+ * in a worker thread, with the context class loader of the calling thread. Before failing the test, a few thread dumps
+ * and, if JFR is available (see {@link TckEvents}), a recording of <i>hangRecordingDuration</i> seconds (default: 5,
+ * 0 to disable) are written to a new directory in <i>hangDiagnosticsDirectory</i> (default: the temporary directory).
+ * The worker thread is interrupted but may keep running if it does not react to interruption.
+ * <p>
+ * Container adapters executing the test method on an instance of their own rather than via the TestNG callback apply
+ * the watchdog via {@link org.hibernate.beanvalidation.tck.tests.AbstractTCKTest#INSTRUMENTATION_ATTRIBUTE}. The
+ * watchdog has no effect on test methods executed in a separate JVM.
+ *
+ * @see #failIfTimedOut(ITestResult)
+ */
+public final class TestWatchdog {
+
+	private static final Logger log = Logger.getLogger( TestWatchdog.class.getName() );
+
+	/**
+	 * Name of the system property setting the timeout of each test method in seconds.
+	 */
+	private static final String TIMEOUT = "testTimeout";
+
+	/**
+	 * Name of the system property setting the directory to write the diagnostics of hanging tests to.
+	 */
+	private static final String DIAGNOSTICS_DIRECTORY = "hangDiagnosticsDirectory";
+
+	/**
+	 * Name of the system property setting the duration of the JFR recording of hanging tests in seconds.
+	 */
+	private static final String RECORDING_DURATION = "hangRecordingDuration";
+
+	private static final long TIMEOUT_SECONDS = Long.getLong( TIMEOUT, 0L );
+
+	private static final long RECORDING_DURATION_SECONDS = Long.getLong( RECORDING_DURATION, 5L );
+
+	private static final int THREAD_DUMPS = 3;
+
+	private static final long THREAD_DUMP_INTERVAL_MILLIS = 1_000L;
+
+	private TestWatchdog() {
+	}
+
+	public static boolean isEnabled() {
+		return TIMEOUT_SECONDS > 0;
+	}
+
+	/**
+	 * Returns a callback running the test method under the watchdog if the watchdog is enabled.
+	 *
+	 * @param callBack the callback invoking the test method
+	 *
+	 * @return the instrumented callback or the given callback if the watchdog is disabled
+	 */
+	public static IHookCallBack instrument(IHookCallBack callBack) {
+		if ( !isEnabled() ) {
+			return callBack;
+		}
+
+		return new IHookCallBack() {
+
+			@Override
+			public void runTestMethod(ITestResult testResult) {
+				runWithTimeout( callBack, testResult );
+			}
+
+			@Override
+			public Object[] getParameters() {
+				return callBack.getParameters();
+			}
+		};
+	}
+
+	/**
+	 * Fails the given test if it was timed out by the watchdog. To be called once the hook of the test method
+	 * returned, as TestNG only considers exceptions thrown by the hook, while the exceptions of the test method itself
+	 * are still pending in the hanging thread.
+	 *
+	 * @param testResult the result of the test method
+	 */
+	public static void failIfTimedOut(ITestResult testResult) {
+		if ( testResult.getThrowable() instanceof TestTimeoutException ) {
+			throw (TestTimeoutException) testResult.getThrowable();
+		}
+	}
+
+	private static void runWithTimeout(IHookCallBack callBack, ITestResult testResult) {
+		String testName = testResult.getTestClass().getName() + "." + testResult.getMethod().getMethodName();
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		FutureTask<Void> test = new FutureTask<>( () -> callBack.runTestMethod( testResult ), null );
+
+		Thread worker = new Thread(
+				() -> {
+					Thread.currentThread().setContextClassLoader( contextClassLoader );
+					test.run();
+				},
+				"TCK test " + testName
+		);
+		worker.setDaemon( true );
+		worker.start();
+
+		try {
+			test.get( TIMEOUT_SECONDS, TimeUnit.SECONDS );
+		}
+		catch ( TimeoutException e ) {
+			Path diagnostics = writeDiagnostics( testName );
+			StackTraceElement[] stackTrace = worker.getStackTrace();
+			worker.interrupt();
+
+			TestTimeoutException timeout = new TestTimeoutException(
+					testName + " did not complete within " + TIMEOUT_SECONDS + " s"
+							+ ( diagnostics != null ? ", see the diagnostics in " + diagnostics : "" )
+			);
+			timeout.setStackTrace( stackTrace );
+			log.severe( timeout.getMessage() );
+			testResult.setThrowable( timeout );
+		}
+		catch ( ExecutionException e ) {
+			// the callback reports exceptions of the test via the test result, so this is a problem of the harness
+			throw new IllegalStateException( "Unable to run " + testName, e.getCause() );
+		}
+		catch ( InterruptedException e ) {
+			worker.interrupt();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Writes thread dumps and a JFR recording of the hanging test.
+	 *
+	 * @return the directory containing the diagnostics or {@code null} if they could not be written
+	 */
+	private static Path writeDiagnostics(String testName) {
+		try {
+			Path directory = Paths.get( System.getProperty( DIAGNOSTICS_DIRECTORY, System.getProperty( "java.io.tmpdir" ) ) )
+					.resolve( testName + "-" + LocalDateTime.now().toString().replace( ':', '-' ) );
+			Files.createDirectories( directory );
+
+			RecordingScope recording = RECORDING_DURATION_SECONDS > 0 ? TckEvents.startRecording( directory.resolve( "recording.jfr" ) ) : null;
+			long recordingEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos( RECORDING_DURATION_SECONDS );
+
+			try ( PrintWriter writer = new PrintWriter( Files.newBufferedWriter( directory.resolve( "threads.txt" ), StandardCharsets.UTF_8 ) ) ) {
+				for ( int i = 0; i < THREAD_DUMPS; i++ ) {
+					if ( i > 0 ) {
+						Thread.sleep( THREAD_DUMP_INTERVAL_MILLIS );
+					}
+					writeThreadDump( writer );
+				}
+			}
+
+			if ( recording != null ) {
+				long remaining = recordingEnd - System.nanoTime();
+				if ( remaining > 0 ) {
+					TimeUnit.NANOSECONDS.sleep( remaining );
+				}
+				recording.stop();
+			}
+
+			return directory;
+		}
+		catch ( IOException | RuntimeException e ) {
+			log.log( Level.WARNING, "Unable to write the diagnostics of " + testName, e );
+			return null;
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	private static void writeThreadDump(PrintWriter writer) {
+		writer.println( "Thread dump at " + LocalDateTime.now() );
+		writer.println();
+
+		for ( ThreadInfo thread : ManagementFactory.getThreadMXBean().dumpAllThreads( true, true ) ) {
+			writer.printf( "\"%s\" #%d %s", thread.getThreadName(), thread.getThreadId(), thread.getThreadState() );
+			if ( thread.getLockName() != null ) {
+				writer.printf( " on %s", thread.getLockName() );
+			}
+			if ( thread.getLockOwnerName() != null ) {
+				writer.printf( " owned by \"%s\" #%d", thread.getLockOwnerName(), thread.getLockOwnerId() );
+			}
+			writer.println();
+
+			StackTraceElement[] stackTrace = thread.getStackTrace();
+			for ( int i = 0; i < stackTrace.length; i++ ) {
+				writer.println( "\tat " + stackTrace[i] );
+				for ( MonitorInfo monitor : thread.getLockedMonitors() ) {
+					if ( monitor.getLockedStackDepth() == i ) {
+						writer.println( "\t- locked " + monitor );
+					}
+				}
+			}
+
+			LockInfo[] synchronizers = thread.getLockedSynchronizers();
+			if ( synchronizers.length > 0 ) {
+				writer.println( "\tLocked synchronizers:" );
+				for ( LockInfo synchronizer : synchronizers ) {
+					writer.println( "\t- " + synchronizer );
+				}
+			}
+			writer.println();
+		}
+	}
+
+	/**
+	 * Raised for a test method which did not complete in time, with the stack trace of the hanging thread.
+	 */
+	public static class TestTimeoutException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		private TestTimeoutException(String message) {
+			super( message );
+		}
+	}
+}
@@ -0,0 +1,198 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.testng.IHookCallBack;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+/**
+ * Turns the test methods into microbenchmarks: once a test method has been executed and passed (i.e. returned normally
+ * or threw one of its expected exceptions), it is invoked again {@code warmLoopWarmupIterations} times for warm-up and
+ * then {@code warmLoopIterations} times while measuring the duration of each invocation. The warm loop is only active if the system property <i>warmLoopIterations</i> is set to
+ * a positive number; the result of the test is never affected by it.
+ * <p>
+ * The repeated invocations happen within the Arquillian lifecycle of the test method, i.e. with the same test instance
+ * and deployment, but without running any configuration methods in between. They go through the same callback as the
+ * first invocation, so container adapters executing the test method on an instance of their own apply the warm loop
+ * to that instance via {@link org.hibernate.beanvalidation.tck.tests.AbstractTCKTest#INSTRUMENTATION_ATTRIBUTE}. Test
+ * methods executed in a separate JVM are not repeated. A repeated invocation throwing one of the
+ * expected exceptions of the test method is measured as any other invocation. A repeated invocation throwing another
+ * exception (e.g. as the test depends on state changed by the previous invocation) ends the loop for this method and
+ * the method is reported as not repeatable.
+ *
+ * @see WarmLoopReporter
+ */
+public final class WarmLoop {
+
+	private static final Logger log = Logger.getLogger( WarmLoop.class.getName() );
+
+	/**
+	 * Name of the system property setting the number of measured invocations per test method.
+	 */
+	private static final String ITERATIONS = "warmLoopIterations";
+
+	/**
+	 * Name of the system property setting the number of warm-up invocations per test method.
+	 */
+	private static final String WARMUP_ITERATIONS = "warmLoopWarmupIterations";
+
+	private static final int DEFAULT_WARMUP_ITERATIONS = 20;
+
+	private static final int ITERATION_COUNT = Integer.getInteger( ITERATIONS, 0 );
+
+	private static final int WARMUP_ITERATION_COUNT = Integer.getInteger( WARMUP_ITERATIONS, DEFAULT_WARMUP_ITERATIONS );
+
+	private static final Map<Method, long[]> DURATIONS = new ConcurrentHashMap<>();
+
+	private static final Map<Method, String> NOT_REPEATABLE = new ConcurrentHashMap<>();
+
+	private WarmLoop() {
+	}
+
+	public static boolean isEnabled() {
+		return ITERATION_COUNT > 0;
+	}
+
+	/**
+	 * Returns a callback running the warm loop after the test method if the warm loop is enabled.
+	 *
+	 * @param callBack the callback invoking the test method
+	 *
+	 * @return the instrumented callback or the given callback if the warm loop is disabled
+	 */
+	public static IHookCallBack instrument(IHookCallBack callBack) {
+		if ( !isEnabled() ) {
+			return callBack;
+		}
+
+		return new IHookCallBack() {
+
+			@Override
+			public void runTestMethod(ITestResult testResult) {
+				callBack.runTestMethod( testResult );
+
+				// the status of the result is only set once the hook returns, so the exception is checked instead
+				Method method = testResult.getMethod().getConstructorOrMethod().getMethod();
+				Class<?>[] expectedExceptions = getExpectedExceptions( method );
+				if ( isCompleted( testResult.getThrowable(), expectedExceptions ) ) {
+					repeat( callBack, testResult, method, expectedExceptions );
+				}
+			}
+
+			@Override
+			public Object[] getParameters() {
+				return callBack.getParameters();
+			}
+		};
+	}
+
+	/**
+	 * @return the durations in nanoseconds of the measured invocations by test method; for methods invoked several
+	 * times, e.g. with a data provider, the durations of the last invocation
+	 */
+	public static Map<Method, long[]> getDurations() {
+		return Collections.unmodifiableMap( DURATIONS );
+	}
+
+	/**
+	 * @return the exceptions thrown by repeated invocations by test method
+	 */
+	public static Map<Method, String> getNotRepeatable() {
+		return Collections.unmodifiableMap( NOT_REPEATABLE );
+	}
+
+	/**
+	 * Repeats the given callback, restoring the exception recorded by the first invocation afterwards.
+	 */
+	private static void repeat(IHookCallBack callBack, ITestResult testResult, Method method, Class<?>[] expectedExceptions) {
+		Throwable throwable = testResult.getThrowable();
+		long[] durations = new long[ITERATION_COUNT];
+
+		try {
+			for ( int i = 0; i < WARMUP_ITERATION_COUNT; i++ ) {
+				if ( !invoke( callBack, testResult, method, expectedExceptions ) ) {
+					return;
+				}
+			}
+
+			for ( int i = 0; i < ITERATION_COUNT; i++ ) {
+				long start = System.nanoTime();
+				if ( !invoke( callBack, testResult, method, expectedExceptions ) ) {
+					return;
+				}
+				durations[i] = System.nanoTime() - start;
+			}
+		}
+		finally {
+			testResult.setThrowable( throwable );
+		}
+
+		DURATIONS.put( method, durations );
+	}
+
+	/**
+	 * Invokes the given callback, an expected exception counts as a regular completion.
+	 *
+	 * @return {@code true} if the invocation completed, {@code false} if it failed and the method is not repeatable
+	 */
+	private static boolean invoke(IHookCallBack callBack, ITestResult testResult, Method method, Class<?>[] expectedExceptions) {
+		testResult.setThrowable( null );
+		callBack.runTestMethod( testResult );
+
+		if ( !isCompleted( testResult.getThrowable(), expectedExceptions ) ) {
+			Throwable cause = unwrap( testResult.getThrowable() );
+			log.fine( "Repeated invocation of " + method + " failed: " + cause );
+			NOT_REPEATABLE.put( method, String.valueOf( cause ) );
+			return false;
+		}
+		return true;
+	}
+
+	private static boolean isCompleted(Throwable throwable, Class<?>[] expectedExceptions) {
+		Throwable cause = unwrap( throwable );
+		return cause == null || isExpected( cause, expectedExceptions );
+	}
+
+	private static Throwable unwrap(Throwable throwable) {
+		return throwable instanceof InvocationTargetException ? throwable.getCause() : throwable;
+	}
+
+	/**
+	 * Returns the expected exceptions of the given test method, given by its {@code @Test} annotation or by the one of
+	 * its class.
+	 */
+	private static Class<?>[] getExpectedExceptions(Method method) {
+		Test test = method.getAnnotation( Test.class );
+		if ( test == null || test.expectedExceptions().length == 0 ) {
+			test = method.getDeclaringClass().getAnnotation( Test.class );
+		}
+		return test != null ? test.expectedExceptions() : new Class<?>[0];
+	}
+
+	/**
+	 * Whether the given exception is one of the expected exceptions. The classes are compared by name, as the test
+	 * method may have been executed on an instance loaded by the class loader of an isolated deployment.
+	 */
+	private static boolean isExpected(Throwable throwable, Class<?>[] expectedExceptions) {
+		for ( Class<?> clazz = throwable.getClass(); clazz != null; clazz = clazz.getSuperclass() ) {
+			for ( Class<?> expectedException : expectedExceptions ) {
+				if ( expectedException.getName().equals( clazz.getName() ) ) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
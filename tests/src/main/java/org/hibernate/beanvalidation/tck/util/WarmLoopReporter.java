@@ -0,0 +1,150 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.stream.LongStream;
+
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.xml.XmlSuite;
+
+/**
+ * TestNG reporter writing the durations measured by the {@link WarmLoop} per test method and per spec section to
+ * <i>warm-loop-methods.csv</i> and <i>warm-loop-sections.csv</i> in the TestNG output directory, sorted by descending
+ * mean duration. The durations of a section are the measured invocations of all test methods asserting it. The slowest
+ * sections are logged as well.
+ */
+public class WarmLoopReporter implements IReporter {
+
+	private static final Logger log = Logger.getLogger( WarmLoopReporter.class.getName() );
+
+	private static final int LOGGED_SECTIONS = 10;
+
+	private static final String HEADER = "mean [us],p50 [us],p90 [us],p99 [us],max [us],invocations";
+
+	@Override
+	public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+		if ( !WarmLoop.isEnabled() ) {
+			return;
+		}
+
+		Map<String, DurationStatistics> methods = new TreeMap<>();
+		Map<String, List<long[]>> durationsBySection = new TreeMap<>();
+
+		for ( Entry<Method, long[]> entry : WarmLoop.getDurations().entrySet() ) {
+			Method method = entry.getKey();
+			methods.put( method.getDeclaringClass().getName() + "#" + method.getName(), new DurationStatistics( entry.getValue() ) );
+
+			for ( String section : SpecSections.getSpecSections( method ) ) {
+				durationsBySection.computeIfAbsent( section, k -> new ArrayList<>() ).add( entry.getValue() );
+			}
+		}
+
+		Map<String, DurationStatistics> sections = new TreeMap<>();
+		for ( Entry<String, List<long[]>> entry : durationsBySection.entrySet() ) {
+			sections.put(
+					entry.getKey(),
+					new DurationStatistics( entry.getValue().stream().flatMapToLong( LongStream::of ).toArray() )
+			);
+		}
+
+		try {
+			write( new File( outputDirectory, "warm-loop-methods.csv" ), "method", methods );
+			write( new File( outputDirectory, "warm-loop-sections.csv" ), "section", sections );
+		}
+		catch ( IOException e ) {
+			throw new IllegalStateException( "Unable to write the warm loop report to " + outputDirectory, e );
+		}
+
+		if ( methods.isEmpty() && WarmLoop.getNotRepeatable().isEmpty() ) {
+			log.warning( "Warm loop: no test method was repeated, the tests were probably executed in a separate JVM" );
+		}
+
+		log.info( String.format(
+				"Warm loop: measured %d test methods asserting %d spec sections, %d test methods not repeatable",
+				methods.size(),
+				sections.size(),
+				WarmLoop.getNotRepeatable().size()
+		) );
+		for ( Entry<Method, String> entry : WarmLoop.getNotRepeatable().entrySet() ) {
+			log.info( String.format( "Not repeatable: %s (%s)", entry.getKey(), entry.getValue() ) );
+		}
+		sections.entrySet().stream()
+				.sorted( byDescendingMean() )
+				.limit( LOGGED_SECTIONS )
+				.forEach( entry -> log.info( String.format( "%s: %s", entry.getKey(), entry.getValue() ) ) );
+	}
+
+	private static void write(File file, String keyColumn, Map<String, DurationStatistics> statistics) throws IOException {
+		file.getParentFile().mkdirs();
+		try ( PrintWriter writer = new PrintWriter( file, StandardCharsets.UTF_8.name() ) ) {
+			writer.println( keyColumn + "," + HEADER );
+			statistics.entrySet().stream()
+					.sorted( byDescendingMean() )
+					.forEach( entry -> writer.println( entry.getKey() + "," + entry.getValue().toCsv() ) );
+		}
+	}
+
+	private static Comparator<Entry<String, DurationStatistics>> byDescendingMean() {
+		return Comparator.comparingDouble( (Entry<String, DurationStatistics> entry) -> entry.getValue().mean ).reversed();
+	}
+
+	private static class DurationStatistics {
+
+		private final long[] sortedDurations;
+		private final double mean;
+
+		private DurationStatistics(long[] durations) {
+			this.sortedDurations = durations.clone();
+			Arrays.sort( sortedDurations );
+			this.mean = LongStream.of( durations ).average().orElse( 0 );
+		}
+
+		private double percentile(double percentile) {
+			int index = (int) Math.ceil( percentile / 100 * sortedDurations.length ) - 1;
+			return sortedDurations[Math.max( index, 0 )];
+		}
+
+		private String toCsv() {
+			return String.format(
+					Locale.ROOT,
+					"%.3f,%.3f,%.3f,%.3f,%.3f,%d",
+					mean / 1_000,
+					percentile( 50 ) / 1_000,
+					percentile( 90 ) / 1_000,
+					percentile( 99 ) / 1_000,
+					percentile( 100 ) / 1_000,
+					sortedDurations.length
+			);
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"mean %.1f us, p50 %.1f us, p99 %.1f us over %d invocations",
+					mean / 1_000,
+					percentile( 50 ) / 1_000,
+					percentile( 99 ) / 1_000,
+					sortedDurations.length
+			);
+		}
+	}
+}
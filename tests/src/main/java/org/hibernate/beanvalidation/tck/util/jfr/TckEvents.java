@@ -0,0 +1,212 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.util.jfr;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+
+import javax.validation.Validator;
+
+/**
+ * Entry point for the JFR events emitted by the TCK harness. The events are only emitted if the system property
+ * <i>jfrEvents</i> is set to {@code true}, the JVM supports JFR and the <i>beanvalidation-tck-jfr-events</i> artifact
+ * is on the classpath; otherwise all methods are no-ops. Recordings, e.g. for diagnosing a hanging test, can be started
+ * independently of that property.
+ * <p>
+ * This class does not reference any JFR type, so that the TCK can be built and run on JVMs without JFR and that the
+ * deployment archives only need to contain this class. The JFR events are emitted by the JFR events artifact, which is
+ * invoked reflectively and always loaded from the classpath, also from within the deployments.
+ */
+public final class TckEvents {
+
+	/**
+	 * Name of the system property for enabling the JFR events.
+	 */
+	private static final String JFR_EVENTS = "jfrEvents";
+
+	private static final String JFR_EVENTS_CLASS = "org.hibernate.beanvalidation.tck.jfr.JfrEvents";
+
+	/**
+	 * The entry point of the JFR events artifact, {@code null} if JFR is not available.
+	 */
+	private static final Class<?> JFR_EVENTS_ENTRY_POINT = loadJfrEventsEntryPoint();
+
+	private static final boolean ENABLED = Boolean.getBoolean( JFR_EVENTS ) && JFR_EVENTS_ENTRY_POINT != null;
+
+	private static final EventScope NO_OP_SCOPE = new EventScope() {
+
+		@Override
+		public void end() {
+		}
+	};
+
+	private TckEvents() {
+	}
+
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * Begins the event of a test method.
+	 *
+	 * @param testClass the test class
+	 * @param testMethod the name of the test method
+	 * @param specSections the spec sections asserted by the test method
+	 *
+	 * @return the scope of the event, to be ended once the test method has been executed
+	 */
+	public static EventScope beginTestMethod(Class<?> testClass, String testMethod, String specSections) {
+		if ( !ENABLED ) {
+			return NO_OP_SCOPE;
+		}
+
+		return toEventScope( invoke( "beginTestMethod", testClass.getName(), testMethod, specSections ) );
+	}
+
+	/**
+	 * Begins the event of a deployment archive build.
+	 *
+	 * @param testClass the test class the archive is built for
+	 * @param archiveName the name of the archive
+	 *
+	 * @return the scope of the event, to be ended once the archive has been built
+	 */
+	public static EventScope beginArchiveBuild(Class<?> testClass, String archiveName) {
+		if ( !ENABLED ) {
+			return NO_OP_SCOPE;
+		}
+
+		return toEventScope( invoke( "beginArchiveBuild", testClass.getName(), archiveName ) );
+	}
+
+	/**
+	 * Begins the event of the deployment of an archive to the in JVM container.
+	 *
+	 * @param deploymentName the name of the deployed archive
+	 *
+	 * @return the scope of the event, to be ended once the archive has been deployed
+	 */
+	public static EventScope beginDeployment(String deploymentName) {
+		if ( !ENABLED ) {
+			return NO_OP_SCOPE;
+		}
+
+		return toEventScope( invoke( "beginDeployment", deploymentName ) );
+	}
+
+	/**
+	 * Returns a validator emitting an event for each validation call if the events are enabled.
+	 *
+	 * @param validator the validator to instrument
+	 *
+	 * @return the instrumented validator or the given validator if the events are disabled
+	 */
+	public static Validator instrument(Validator validator) {
+		if ( !ENABLED ) {
+			return validator;
+		}
+
+		return (Validator) invoke( "instrument", validator );
+	}
+
+	/**
+	 * Starts a JFR recording with the settings of the <i>profile</i> configuration, regardless of whether the events
+	 * are enabled.
+	 *
+	 * @param destination the file to write the recording to once it is stopped
+	 *
+	 * @return the started recording or {@code null} if JFR is not available
+	 */
+	public static RecordingScope startRecording(Path destination) throws IOException {
+		if ( JFR_EVENTS_ENTRY_POINT == null ) {
+			return null;
+		}
+
+		try {
+			Closeable recording = (Closeable) invoke( "startRecording", destination );
+			return recording::close;
+		}
+		catch ( UncheckedIOException e ) {
+			throw e.getCause();
+		}
+	}
+
+	private static EventScope toEventScope(Object endAction) {
+		return ( (Runnable) endAction )::run;
+	}
+
+	/**
+	 * Invokes the given method of the entry point of the JFR events artifact, which has no overloaded methods.
+	 */
+	private static Object invoke(String methodName, Object... args) {
+		try {
+			for ( Method method : JFR_EVENTS_ENTRY_POINT.getMethods() ) {
+				if ( method.getName().equals( methodName ) ) {
+					return method.invoke( null, args );
+				}
+			}
+			throw new IllegalStateException( "Method " + methodName + " not found on " + JFR_EVENTS_ENTRY_POINT );
+		}
+		catch ( InvocationTargetException e ) {
+			Throwable cause = e.getCause();
+			if ( cause instanceof RuntimeException ) {
+				throw (RuntimeException) cause;
+			}
+			if ( cause instanceof Error ) {
+				throw (Error) cause;
+			}
+			if ( cause instanceof IOException ) {
+				throw new UncheckedIOException( (IOException) cause );
+			}
+			throw new IllegalStateException( cause );
+		}
+		catch ( IllegalAccessException e ) {
+			throw new IllegalStateException( e );
+		}
+	}
+
+	/**
+	 * The only check whether JFR is available: the JVM must provide the JFR API and the JFR events artifact must be on
+	 * the classpath.
+	 */
+	private static Class<?> loadJfrEventsEntryPoint() {
+		try {
+			Class.forName( "jdk.jfr.Event" );
+			return Class.forName( JFR_EVENTS_CLASS, true, TckEvents.class.getClassLoader() );
+		}
+		catch ( ClassNotFoundException | LinkageError e ) {
+			return null;
+		}
+	}
+
+	/**
+	 * The scope of an event which has been begun.
+	 */
+	public interface EventScope {
+
+		/**
+		 * Ends and commits the event.
+		 */
+		void end();
+	}
+
+	/**
+	 * A JFR recording which has been started.
+	 */
+	public interface RecordingScope {
+
+		/**
+		 * Stops the recording and writes it to its destination.
+		 */
+		void stop() throws IOException;
+	}
+}
@@ -0,0 +1,49 @@
+/**
+ * Bean Validation TCK
+ *
+ * License: Apache License, Version 2.0
+ * See the license.txt file in the root directory or <http://www.apache.org/licenses/LICENSE-2.0>.
+ */
+package org.hibernate.beanvalidation.tck.util.jfr;
+
+import java.lang.reflect.Method;
+
+import org.hibernate.beanvalidation.tck.util.SpecSections;
+import org.hibernate.beanvalidation.tck.util.jfr.TckEvents.EventScope;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * TestNG listener emitting a JFR event for each executed test method, carrying the spec sections asserted by the test.
+ * Only active if the JFR events are enabled, see {@link TckEvents}.
+ */
+public class TckEventsListener implements IInvokedMethodListener {
+
+	private static final String EVENT_SCOPE_ATTRIBUTE = TckEventsListener.class.getName() + ".eventScope";
+
+	@Override
+	public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+		if ( !TckEvents.isEnabled() || !method.isTestMethod() ) {
+			return;
+		}
+
+		Method testMethod = method.getTestMethod().getConstructorOrMethod().getMethod();
+		testResult.setAttribute(
+				EVENT_SCOPE_ATTRIBUTE,
+				TckEvents.beginTestMethod( testMethod.getDeclaringClass(), testMethod.getName(), getSpecSections( testMethod ) )
+		);
+	}
+
+	@Override
+	public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+		EventScope eventScope = (EventScope) testResult.removeAttribute( EVENT_SCOPE_ATTRIBUTE );
+		if ( eventScope != null ) {
+			eventScope.end();
+		}
+	}
+
+	private static String getSpecSections(Method testMethod) {
+		return String.join( ", ", SpecSections.getSpecSections( testMethod ) );
+	}
+}
@@ -9,6 +9,8 @@ package org.hibernate.beanvalidation.tck.util.shrinkwrap;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.beanvalidation.tck.util.jfr.TckEvents;
+import org.hibernate.beanvalidation.tck.util.jfr.TckEvents.EventScope;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.Asset;
@@ -165,7 +167,13 @@ public abstract class ArchiveBuilder<T extends ArchiveBuilder<T, A>, A extends A
 			throw new IllegalStateException( "Test class must be set!" );
 		}
 
-		return buildInternal();
+		EventScope eventScope = TckEvents.beginArchiveBuild( testClazz, getName() );
+		try {
+			return buildInternal();
+		}
+		finally {
+			eventScope.end();
+		}
 	}
 
 	/**